@@ -0,0 +1,45 @@
+package com.eatclub.deals.benchmark;
+
+import com.eatclub.deals.util.DateTimeParser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DateTimeParser.parseTimeRobustly for each accepted format and for invalid input,
+ * which is answered with an exception.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DateTimeParserBenchmark {
+
+    @Param({"3:00pm", "10:30AM", "15:00", "25:99"})
+    private String timeOfDay;
+
+    private final DateTimeParser dateTimeParser = new DateTimeParser();
+
+    @Benchmark
+    public LocalTime parseTimeRobustly() {
+        try {
+            return dateTimeParser.parseTimeRobustly(timeOfDay);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.eatclub.deals.benchmark;
+
+import com.eatclub.deals.DealsServiceApplication;
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.exception.DealSoldOutException;
+import com.eatclub.deals.repository.DealRepository;
+import com.eatclub.deals.service.DealClaimService;
+import com.eatclub.deals.service.DealInventory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 200 threads claiming the same deal through DealClaimService, against the local profile's
+ * in-memory H2 database loaded with the challenge data. Every iteration starts the deal with
+ * STOCK units, so it sells out mid-iteration and the rest of the claims are refused.
+ *
+ * After each iteration the units taken are checked against the successful claims, and the
+ * run fails if the deal was oversold. With source set to memory, claims are confirmed by the
+ * DealInventory and its pending units are written before the check.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(200)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class DealClaimBenchmark {
+
+    private static final int STOCK = 20_000;
+
+    @Param({"database", "memory"})
+    private String source;
+
+    private ConfigurableApplicationContext context;
+    private DealRepository dealRepository;
+    private DealClaimService dealClaimService;
+    private DealInventory dealInventory;
+    private String dealObjectId;
+    private final AtomicLong claimed = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(DealsServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("local")
+                .run("--deals.claim.source=" + source);
+        dealRepository = context.getBean(DealRepository.class);
+        dealClaimService = context.getBean(DealClaimService.class);
+        dealInventory = context.getBean(DealInventory.class);
+        dealObjectId = dealRepository.findAll().get(0).getDealObjectId();
+    }
+
+    @Setup(Level.Iteration)
+    public void restock() {
+        Deal deal = dealRepository.findByDealObjectId(dealObjectId).orElseThrow();
+        deal.setQtyLeft(STOCK);
+        dealRepository.save(deal);
+        claimed.set(0);
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkNotOversold() {
+        dealInventory.flush();
+        int qtyLeft = dealRepository.findByDealObjectId(dealObjectId).orElseThrow().getQtyLeft();
+        if (qtyLeft < 0 || STOCK - qtyLeft != claimed.get()) {
+            throw new IllegalStateException("Oversold: " + claimed.get() + " claims succeeded, "
+                                            + (STOCK - qtyLeft) + " units taken, " + qtyLeft + " left");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean claim() {
+        try {
+            dealClaimService.claim(dealObjectId);
+            claimed.incrementAndGet();
+            return true;
+        } catch (DealSoldOutException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.eatclub.deals.benchmark;
+
+import com.eatclub.deals.DealsServiceApplication;
+import com.eatclub.deals.dto.DealFilter;
+import com.eatclub.deals.dto.DealResponseDto;
+import com.eatclub.deals.dto.DealSort;
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.repository.DealRepository;
+import com.eatclub.deals.repository.DealSpecifications;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A filtered, sorted search answered by the database, against the local profile's in-memory
+ * H2 database loaded with the challenge data: once loading Deal and Restaurant entities and
+ * mapping them with DealResponseDto.fromEntity, once projecting the columns straight into
+ * DealResponseDto rows. Run with -prof gc to compare the bytes allocated per search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class DealProjectionBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private DealRepository dealRepository;
+    private Specification<Deal> search;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(DealsServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("local")
+                .run();
+        dealRepository = context.getBean(DealRepository.class);
+        search = DealSpecifications.search(LocalTime.of(19, 0), new DealFilter(null, null, 10.0, null, null),
+                                           null, null, null)
+                                   .and(DealSpecifications.orderedBy(DealSort.DISCOUNT));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<DealResponseDto> entities() {
+        return dealRepository.findAll(search).stream()
+                             .map(DealResponseDto::fromEntity)
+                             .toList();
+    }
+
+    @Benchmark
+    public List<DealResponseDto> projection() {
+        return dealRepository.findResponses(search);
+    }
+}
@@ -0,0 +1,52 @@
+package com.eatclub.deals.benchmark;
+
+import com.eatclub.deals.dto.DealResponseDto;
+import com.eatclub.deals.entity.Deal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DealResponseDto.fromEntity, walking the catalogue so larger catalogues also show
+ * the cost of reading deals and restaurants that are no longer in cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class DealResponseDtoBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int dealCount;
+
+    private Deal[] deals;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Deal> catalog = SyntheticCatalog.deals(dealCount);
+        deals = catalog.toArray(new Deal[0]);
+    }
+
+    @Benchmark
+    public DealResponseDto fromEntity() {
+        Deal deal = deals[next];
+        next = (next + 1 == deals.length) ? 0 : next + 1;
+        return DealResponseDto.fromEntity(deal);
+    }
+}
@@ -0,0 +1,77 @@
+package com.eatclub.deals.benchmark;
+
+import com.eatclub.deals.dto.DealFilter;
+import com.eatclub.deals.dto.DealSort;
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.service.DealTimeline;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DealTimeline searches on catalogues of 1k to 1M deals, without the web layer:
+ * - activeAt: the unfiltered lookup, for reference.
+ * - searchFlags: dine-in, non-lightning deals, answered by ANDing bitmaps.
+ * - searchCuisineAndSuburb: deals of one suburb serving either of two cuisines.
+ * - searchSorted: the same flags, highest discount first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class DealSearchBenchmark {
+
+    private static final LocalTime TIME_OF_DAY = LocalTime.of(19, 0);
+
+    @Param({"1000", "100000", "1000000"})
+    private int dealCount;
+
+    private DealTimeline timeline;
+    private DealFilter flags;
+    private DealFilter cuisineAndSuburb;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        timeline = DealTimeline.of(SyntheticCatalog.deals(dealCount));
+        flags = new DealFilter(true, false, null, null, null);
+        cuisineAndSuburb = new DealFilter(null, null, null, "Richmond", List.of("Thai", "Curry"));
+        timeline.searchAt(TIME_OF_DAY, flags, DealSort.DISCOUNT);
+        timeline.searchAt(TIME_OF_DAY, cuisineAndSuburb, null);
+    }
+
+    @Benchmark
+    public List<Deal> activeAt() {
+        return timeline.activeAt(TIME_OF_DAY);
+    }
+
+    @Benchmark
+    public List<Deal> searchFlags() {
+        return timeline.searchAt(TIME_OF_DAY, flags, null);
+    }
+
+    @Benchmark
+    public List<Deal> searchCuisineAndSuburb() {
+        return timeline.searchAt(TIME_OF_DAY, cuisineAndSuburb, null);
+    }
+
+    @Benchmark
+    public List<Deal> searchSorted() {
+        return timeline.searchAt(TIME_OF_DAY, flags, DealSort.DISCOUNT);
+    }
+}
@@ -0,0 +1,103 @@
+package com.eatclub.deals.benchmark;
+
+import com.eatclub.deals.DealsServiceApplication;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 800 concurrent clients calling /v1/deals over HTTP against the local profile, with searches
+ * sent to the database so that every request blocks on JDBC, as on the platform thread pool
+ * in production. Run with virtualThreads false and true to compare the two execution modes
+ * at the same Tomcat and Hikari settings (200 request threads, 20 connections).
+ *
+ * After each iteration the heap in use and the number of live platform threads are printed,
+ * to compare memory at the sustained concurrency reached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(800)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class DealsConcurrencyBenchmark {
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(DealsServiceApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .profiles("local")
+                .run("--server.port=0",
+                     "--server.tomcat.threads.max=200",
+                     "--spring.datasource.hikari.maximum-pool-size=20",
+                     "--spring.threads.virtual.enabled=" + virtualThreads,
+                     "--deals.search.source=database");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder()
+                           .version(HttpClient.Version.HTTP_1_1)
+                           .connectTimeout(Duration.ofSeconds(10))
+                           .build();
+        request = HttpRequest.newBuilder(URI.create(
+                        "http://localhost:" + port + "/deals-service/v1/deals?timeOfDay=7:00pm&minDiscount=10&sort=discount"))
+                             .timeout(Duration.ofSeconds(30))
+                             .GET()
+                             .build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportFootprint() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        System.out.printf("%n[virtualThreads=%s] heap used %d MB, live platform threads %d%n",
+                          virtualThreads, memory.getHeapMemoryUsage().getUsed() >> 20, threads.getThreadCount());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getDeals() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
@@ -0,0 +1,126 @@
+package com.eatclub.deals.benchmark;
+
+import com.eatclub.deals.controller.DealController;
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.exception.GlobalExceptionHandler;
+import com.eatclub.deals.repository.DealRepository;
+import com.eatclub.deals.service.ActiveDealIndex;
+import com.eatclub.deals.service.DealResponseSnapshotService;
+import com.eatclub.deals.service.DealSearchService;
+import com.eatclub.deals.service.DealTimeline;
+import com.eatclub.deals.util.DateTimeParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * The /v1/deals path from request parameter to response body, through the Spring MVC
+ * dispatcher without a network stack:
+ * - getDeals: a request answered from the cached snapshot, or streamed for large catalogues.
+ * - getDealsNotModified: the same request revalidated with If-None-Match.
+ * - getDealsByCuisine: a first page filtered by cuisine, to compare with an unfiltered page.
+ * - getDealsPage: the unfiltered first page.
+ * - renderSnapshot: building the snapshot of one segment, as after every catalogue change.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class DealsEndpointBenchmark {
+
+    private static final String TIME_OF_DAY = "7:00pm";
+
+    @Param({"1000", "100000", "1000000"})
+    private int dealCount;
+
+    private MockMvc mockMvc;
+    private ObjectMapper objectMapper;
+    private DealTimeline timeline;
+    private String etag;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<Deal> deals = SyntheticCatalog.deals(dealCount);
+        DealRepository dealRepository = StubDealRepository.of(deals);
+        ActiveDealIndex activeDealIndex = new ActiveDealIndex(dealRepository, StubDealRepository.restaurantsOf(deals));
+        timeline = activeDealIndex.refresh();
+
+        DealController dealController = new DealController(activeDealIndex);
+        ReflectionTestUtils.setField(dealController, "dateTimeParser", new DateTimeParser());
+        ReflectionTestUtils.setField(dealController, "dealResponseSnapshotService", new DealResponseSnapshotService(objectMapper));
+        ReflectionTestUtils.setField(dealController, "dealSearchService", new DealSearchService(activeDealIndex, dealRepository));
+        mockMvc = MockMvcBuilders.standaloneSetup(dealController)
+                                 .setControllerAdvice(new GlobalExceptionHandler())
+                                 .build();
+
+        // Streamed responses carry no ETag, so revalidation then streams the body again.
+        String snapshotEtag = perform(get("/v1/deals").param("timeOfDay", TIME_OF_DAY)).getHeader("ETag");
+        etag = (snapshotEtag != null) ? snapshotEtag : "\"none\"";
+    }
+
+    @Benchmark
+    public int getDeals() throws Exception {
+        return perform(get("/v1/deals").param("timeOfDay", TIME_OF_DAY)).getContentAsByteArray().length;
+    }
+
+    @Benchmark
+    public int getDealsNotModified() throws Exception {
+        return perform(get("/v1/deals").param("timeOfDay", TIME_OF_DAY).header("If-None-Match", etag)).getStatus();
+    }
+
+    @Benchmark
+    public int getDealsByCuisine() throws Exception {
+        return perform(get("/v1/deals").param("timeOfDay", TIME_OF_DAY).param("cuisines", "Thai,Curry")
+                                       .param("sort", "qtyLeft").param("limit", "20")).getContentAsByteArray().length;
+    }
+
+    @Benchmark
+    public int getDealsPage() throws Exception {
+        return perform(get("/v1/deals").param("timeOfDay", TIME_OF_DAY)
+                                       .param("sort", "qtyLeft").param("limit", "20")).getContentAsByteArray().length;
+    }
+
+    @Benchmark
+    public byte[] renderSnapshot() {
+        return new DealResponseSnapshotService(objectMapper).snapshotAt(timeline, LocalTime.of(19, 0)).getBody();
+    }
+
+    /**
+     * Performs the request, completing it first if the body is streamed asynchronously.
+     */
+    private MockHttpServletResponse perform(MockHttpServletRequestBuilder request) throws Exception {
+        MvcResult result = mockMvc.perform(request).andReturn();
+        if (result.getRequest().isAsyncStarted()) {
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        return result.getResponse();
+    }
+}
@@ -0,0 +1,103 @@
+package com.eatclub.deals.benchmark;
+
+import com.eatclub.deals.DealsServiceApplication;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /v1/deals over HTTP with 800 concurrent clients, served either by the servlet DealController
+ * (JSON from the in-memory timeline) or by the WebFlux ReactiveDealController (NDJSON read
+ * through R2DBC), both against the local profile's H2 database.
+ *
+ * The reactive stack is only on the classpath with the reactive Maven profile:
+ * mvn -Pbenchmark,reactive test-compile exec:exec -Djmh.args="DealsStackBenchmark -prof gc"
+ *
+ * After each iteration the heap in use and the number of live platform threads are printed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(800)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class DealsStackBenchmark {
+
+    @Param({"servlet", "reactive"})
+    private String stack;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        boolean reactive = "reactive".equals(stack);
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(DealsServiceApplication.class)
+                .properties("server.port=0");
+        if (reactive) {
+            builder.web(WebApplicationType.REACTIVE).profiles("local", "reactive");
+        } else {
+            builder.web(WebApplicationType.SERVLET).profiles("local");
+        }
+        context = builder.run();
+
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        client = HttpClient.newBuilder()
+                           .version(HttpClient.Version.HTTP_1_1)
+                           .connectTimeout(Duration.ofSeconds(10))
+                           .build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/deals-service/v1/deals?timeOfDay=7:00pm"))
+                             .header("Accept", reactive ? "application/x-ndjson" : "application/json")
+                             .timeout(Duration.ofSeconds(30))
+                             .GET()
+                             .build();
+    }
+
+    @TearDown(Level.Iteration)
+    public void reportFootprint() {
+        System.out.printf("%n[%s] heap used %d MB, live platform threads %d%n", stack,
+                          ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed() >> 20,
+                          ManagementFactory.getThreadMXBean().getThreadCount());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int getDeals() throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.body().length;
+    }
+}
@@ -0,0 +1,96 @@
+package com.eatclub.deals.benchmark;
+
+import com.eatclub.deals.DealsServiceApplication;
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.entity.DealCatalogChangedEvent;
+import com.eatclub.deals.service.PeakTimeCalculatorService;
+import com.eatclub.deals.service.PeakTimeCalculatorService.PeakTimeSource;
+import com.eatclub.deals.service.PeakTimeCalculatorService.PeakTimeWindow;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PeakTimeCalculatorService.calculatePeakTimeWindow on catalogues of 1k to 1M deals,
+ * from both peak-time sources. The catalogue is inserted into the local profile's in-memory
+ * H2 database, so seeding runs the real repository queries: findValidDealTimeWindows for
+ * memory, the countValidDealsByTimeWindow aggregation for database.
+ * - cachedPeakTime: a read with nothing changed since the last one.
+ * - reseedAndCalculate: a full reload followed by a read, i.e. the cost after startup or a bulk load.
+ * - applyChangeAndCalculate: one committed deal write followed by a read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PeakTimeBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int dealCount;
+
+    @Param({"MEMORY", "DATABASE"})
+    private PeakTimeSource source;
+
+    private ConfigurableApplicationContext context;
+    private PeakTimeCalculatorService peakTimeCalculatorService;
+    private DealCatalogChangedEvent singleDealChange;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(DealsServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("local")
+                .run("--deals.peak-time.source=" + source.name().toLowerCase());
+        List<Deal> deals = SyntheticCatalog.deals(dealCount);
+        SyntheticCatalog.insert(context.getBean(JdbcTemplate.class), deals);
+
+        peakTimeCalculatorService = context.getBean(PeakTimeCalculatorService.class);
+        peakTimeCalculatorService.onCatalogChanged(DealCatalogChangedEvent.fullReload());
+        peakTimeCalculatorService.calculatePeakTimeWindow();
+
+        singleDealChange = new DealCatalogChangedEvent(
+                List.of(DealCatalogChangedEvent.DealChange.of(deals.get(dealCount / 2), false)), false);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public PeakTimeWindow cachedPeakTime() {
+        return peakTimeCalculatorService.calculatePeakTimeWindow();
+    }
+
+    @Benchmark
+    public PeakTimeWindow reseedAndCalculate() {
+        peakTimeCalculatorService.onCatalogChanged(DealCatalogChangedEvent.fullReload());
+        return peakTimeCalculatorService.calculatePeakTimeWindow();
+    }
+
+    @Benchmark
+    public PeakTimeWindow applyChangeAndCalculate() {
+        peakTimeCalculatorService.onCatalogChanged(singleDealChange);
+        return peakTimeCalculatorService.calculatePeakTimeWindow();
+    }
+}
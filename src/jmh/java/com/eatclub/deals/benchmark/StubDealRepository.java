@@ -0,0 +1,78 @@
+package com.eatclub.deals.benchmark;
+
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.repository.DealRepository;
+import com.eatclub.deals.repository.DealTimeWindow;
+import com.eatclub.deals.repository.DealTimeWindowCount;
+import com.eatclub.deals.repository.RestaurantCuisine;
+import com.eatclub.deals.repository.RestaurantRepository;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An in-memory DealRepository (and RestaurantRepository) answering the read queries the hot paths depend on from a
+ * fixed catalogue, so the benchmarks measure the services rather than the database.
+ * The query results are computed once, as the database would return them; any other
+ * repository method throws UnsupportedOperationException.
+ */
+final class StubDealRepository {
+
+    private StubDealRepository() {
+    }
+
+    static DealRepository of(List<Deal> deals) {
+        List<Deal> validDeals = deals.stream()
+                                     .filter(deal -> !Boolean.TRUE.equals(deal.getIsDeleted()))
+                                     .toList();
+        List<DealTimeWindow> timeWindows = validDeals.stream()
+                                                     .map(deal -> new DealTimeWindow(deal.getId(), deal.getStartTime(), deal.getEndTime()))
+                                                     .toList();
+        Map<List<LocalTime>, Long> countsByWindow = new LinkedHashMap<>();
+        for (Deal deal : validDeals) {
+            countsByWindow.merge(List.of(deal.getStartTime(), deal.getEndTime()), 1L, Long::sum);
+        }
+        List<DealTimeWindowCount> windowCounts = countsByWindow.entrySet().stream()
+                                                               .map(entry -> new DealTimeWindowCount(
+                                                                       entry.getKey().get(0), entry.getKey().get(1), entry.getValue()))
+                                                               .toList();
+
+        return (DealRepository) Proxy.newProxyInstance(
+                DealRepository.class.getClassLoader(),
+                new Class<?>[] {DealRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findAllValidDeals" -> validDeals;
+                    case "findValidDealTimeWindows" -> timeWindows;
+                    case "countValidDealsByTimeWindow" -> windowCounts;
+                    case "toString" -> "StubDealRepository[" + validDeals.size() + " deals]";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    static RestaurantRepository restaurantsOf(List<Deal> deals) {
+        Map<Long, List<String>> cuisinesByRestaurant = new LinkedHashMap<>();
+        for (Deal deal : deals) {
+            cuisinesByRestaurant.putIfAbsent(deal.getRestaurant().getId(), deal.getRestaurant().getCuisines());
+        }
+        List<RestaurantCuisine> restaurantCuisines = new ArrayList<>();
+        cuisinesByRestaurant.forEach((restaurantId, cuisines) ->
+                cuisines.forEach(cuisine -> restaurantCuisines.add(new RestaurantCuisine(restaurantId, cuisine))));
+
+        return (RestaurantRepository) Proxy.newProxyInstance(
+                RestaurantRepository.class.getClassLoader(),
+                new Class<?>[] {RestaurantRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findAllRestaurantCuisines" -> restaurantCuisines;
+                    case "toString" -> "StubRestaurantRepository[" + cuisinesByRestaurant.size() + " restaurants]";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,157 @@
+package com.eatclub.deals.benchmark;
+
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.entity.Restaurant;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Builds reproducible catalogues of restaurants and deals for the benchmarks.
+ *
+ * Every restaurant has four deals on average. Restaurants open between 7am and noon and
+ * close between 8pm and midnight; most deals run for the opening hours or a sub-window of
+ * them on quarter-hour marks, a few run past midnight and a few are sold out. Each
+ * restaurant serves two of eight cuisines.
+ */
+final class SyntheticCatalog {
+
+    private static final long SEED = 20240601L;
+    private static final int INSERT_BATCH_SIZE = 10_000;
+    private static final int DEALS_PER_RESTAURANT = 4;
+    private static final String[] SUBURBS = {"Carlton", "Fitzroy", "Richmond", "South Yarra", "Brunswick", "Collingwood"};
+    private static final String[] CUISINES = {"Italian", "Pizza", "Indian", "Curry", "Thai", "Noodles", "Chinese", "Burgers"};
+
+    private SyntheticCatalog() {
+    }
+
+    static List<Deal> deals(int dealCount) {
+        Random random = new Random(SEED);
+        List<Deal> deals = new ArrayList<>(dealCount);
+        Restaurant restaurant = null;
+
+        for (int i = 0; i < dealCount; i++) {
+            if (i % DEALS_PER_RESTAURANT == 0) {
+                restaurant = restaurant(i / DEALS_PER_RESTAURANT, random);
+            }
+            deals.add(deal(i, restaurant, random));
+        }
+        return deals;
+    }
+
+    /**
+     * Replaces the contents of the deals, restaurants and restaurant_cuisines tables with the
+     * given deals and their restaurants, inserting them in JDBC batches.
+     */
+    static void insert(JdbcTemplate jdbcTemplate, List<Deal> deals) {
+        jdbcTemplate.update("DELETE FROM deals");
+        jdbcTemplate.update("DELETE FROM restaurant_cuisines");
+        jdbcTemplate.update("DELETE FROM restaurants");
+
+        Map<Long, Restaurant> restaurants = new LinkedHashMap<>();
+        deals.forEach(deal -> restaurants.putIfAbsent(deal.getRestaurant().getId(), deal.getRestaurant()));
+        Timestamp now = Timestamp.from(Instant.now());
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO restaurants (id, restaurant_object_id, name, address_1, suburb, image_link, " +
+                "open_time, close_time, created_at, updated_at, is_deleted) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                restaurants.values(), INSERT_BATCH_SIZE, (statement, restaurant) -> {
+                    statement.setLong(1, restaurant.getId());
+                    statement.setString(2, restaurant.getRestaurantObjectId());
+                    statement.setString(3, restaurant.getRestaurantName());
+                    statement.setString(4, restaurant.getRestaurantAddress1());
+                    statement.setString(5, restaurant.getRestarantSuburb());
+                    statement.setString(6, restaurant.getImageLink());
+                    statement.setTime(7, Time.valueOf(restaurant.getOpenTime()));
+                    statement.setTime(8, Time.valueOf(restaurant.getCloseTime()));
+                    statement.setTimestamp(9, now);
+                    statement.setTimestamp(10, now);
+                    statement.setBoolean(11, restaurant.getIsDeleted());
+                });
+
+        List<Object[]> cuisines = new ArrayList<>();
+        for (Restaurant restaurant : restaurants.values()) {
+            for (int order = 0; order < restaurant.getCuisines().size(); order++) {
+                cuisines.add(new Object[] {restaurant.getId(), restaurant.getCuisines().get(order), order});
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO restaurant_cuisines (restaurant_id, cuisine, cuisine_order) VALUES (?, ?, ?)", cuisines);
+
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO deals (id, deal_object_id, restaurant_id, restaurant_name_denormalized, discount, " +
+                "dine_in, lightning, qty_left, qty_claimed, start_time, end_time, created_at, updated_at, is_deleted) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                deals, INSERT_BATCH_SIZE, (statement, deal) -> {
+                    statement.setLong(1, deal.getId());
+                    statement.setString(2, deal.getDealObjectId());
+                    statement.setLong(3, deal.getRestaurant().getId());
+                    statement.setString(4, deal.getRestaurantNameDenormalized());
+                    statement.setDouble(5, deal.getDiscount());
+                    statement.setBoolean(6, deal.getDineIn());
+                    statement.setBoolean(7, deal.getLightning());
+                    statement.setInt(8, deal.getQtyLeft());
+                    statement.setInt(9, deal.getQtyClaimed());
+                    statement.setTime(10, Time.valueOf(deal.getStartTime()));
+                    statement.setTime(11, Time.valueOf(deal.getEndTime()));
+                    statement.setTimestamp(12, now);
+                    statement.setTimestamp(13, now);
+                    statement.setBoolean(14, deal.getIsDeleted());
+                });
+    }
+
+    private static Restaurant restaurant(int index, Random random) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId((long) index + 1);
+        restaurant.setRestaurantObjectId(String.format("R%07d-0000-4000-8000-000000000000", index));
+        restaurant.setRestaurantName("Restaurant " + index);
+        restaurant.setRestaurantAddress1(index + " Lygon Street");
+        restaurant.setRestarantSuburb(SUBURBS[index % SUBURBS.length]);
+        restaurant.setCuisines(List.of(CUISINES[index % CUISINES.length], CUISINES[(index + 3) % CUISINES.length]));
+        restaurant.setImageLink("https://example.com/restaurants/" + index + ".jpg");
+        restaurant.setOpenTime(LocalTime.of(7 + random.nextInt(6), 30 * random.nextInt(2)));
+        restaurant.setCloseTime(LocalTime.of(20 + random.nextInt(4), 30 * random.nextInt(2)));
+        restaurant.setIsDeleted(false);
+        return restaurant;
+    }
+
+    private static Deal deal(int index, Restaurant restaurant, Random random) {
+        LocalTime startTime = restaurant.getOpenTime();
+        LocalTime endTime = restaurant.getCloseTime();
+        int shape = random.nextInt(100);
+        if (shape < 5) {
+            startTime = LocalTime.of(21 + random.nextInt(3), 0);
+            endTime = LocalTime.of(random.nextInt(3), 15 * random.nextInt(4));
+        } else if (shape < 60) {
+            int openMinute = restaurant.getOpenTime().toSecondOfDay() / 60;
+            int closeMinute = restaurant.getCloseTime().toSecondOfDay() / 60;
+            int start = openMinute + 15 * random.nextInt((closeMinute - openMinute) / 15);
+            int end = Math.min(closeMinute, start + 15 * (4 + random.nextInt(16)));
+            startTime = LocalTime.ofSecondOfDay(start * 60L);
+            endTime = LocalTime.ofSecondOfDay(end * 60L);
+        }
+
+        Deal deal = new Deal();
+        deal.setId((long) index + 1);
+        deal.setDealObjectId(String.format("D%07d-0000-4000-8000-000000000000", index));
+        deal.setRestaurant(restaurant);
+        deal.setRestaurantNameDenormalized(restaurant.getRestaurantName());
+        deal.setDiscount((double) (10 + 5 * random.nextInt(9)));
+        deal.setDineIn(random.nextBoolean());
+        deal.setLightning(random.nextInt(10) == 0);
+        deal.setQtyLeft(random.nextInt(10) == 0 ? 0 : 1 + random.nextInt(10));
+        deal.setStartTime(startTime);
+        deal.setEndTime(endTime);
+        deal.setIsDeleted(false);
+        return deal;
+    }
+}
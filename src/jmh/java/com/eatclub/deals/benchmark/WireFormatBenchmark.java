@@ -0,0 +1,91 @@
+package com.eatclub.deals.benchmark;
+
+import com.eatclub.deals.dto.DealResponseDto;
+import com.eatclub.deals.dto.DealWireFormat;
+import com.eatclub.deals.service.DealResponseSnapshotService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding and decoding a /v1/deals body in each DealWireFormat, with the service's own
+ * writers on the encoding side. The body size of every format is printed once per trial,
+ * so payload size can be compared alongside the time and, through the GC profiler, the
+ * allocation of each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class WireFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"1000", "100000"})
+    private int dealCount;
+
+    private DealWireFormat wireFormat;
+    private DealResponseSnapshotService snapshotService;
+    private List<DealResponseDto> responses;
+    private ObjectReader reader;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        wireFormat = DealWireFormat.valueOf(format.toUpperCase(Locale.ENGLISH));
+        ObjectMapper objectMapper = new ObjectMapper();
+        snapshotService = new DealResponseSnapshotService(objectMapper);
+        responses = new ArrayList<>(DealResponseDto.fromEntities(SyntheticCatalog.deals(dealCount)));
+
+        ObjectMapper decoder = switch (wireFormat) {
+            case JSON -> objectMapper;
+            case SMILE -> new ObjectMapper(new SmileFactory());
+            case CBOR -> new ObjectMapper(new CBORFactory());
+        };
+        reader = decoder.readerForListOf(DealResponseDto.class);
+        encoded = encode().toByteArray();
+
+        System.out.printf("%n[%s, %d deals] %d bytes, %.1f bytes per deal%n",
+                          format, dealCount, encoded.length, (double) encoded.length / dealCount);
+    }
+
+    @Benchmark
+    public int serialize() throws IOException {
+        return encode().size();
+    }
+
+    @Benchmark
+    public List<DealResponseDto> deserialize() throws IOException {
+        return reader.readValue(encoded);
+    }
+
+    private ByteArrayOutputStream encode() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(encoded != null ? encoded.length : 0, 1024));
+        snapshotService.writeResponses(responses, wireFormat, out);
+        return out;
+    }
+}
@@ -9,13 +9,16 @@ import java.util.Locale;
 @Configuration
 public class DateTimeConfig {
 
+    public static final DateTimeFormatter HHMM_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+    public static final DateTimeFormatter HHMMA_FORMATTER = DateTimeFormatter.ofPattern("h:mma", Locale.ENGLISH);
+
     @Bean("hhmmFormatter")
     public DateTimeFormatter hhmmFormatter() {
-        return DateTimeFormatter.ofPattern("HH:mm");
+        return HHMM_FORMATTER;
     }
 
     @Bean("hhmmaFormatter")
     public DateTimeFormatter hhmmaFormatter() {
-        return DateTimeFormatter.ofPattern("h:mma", Locale.ENGLISH);
+        return HHMMA_FORMATTER;
     }
 }
@@ -0,0 +1,12 @@
+package com.eatclub.deals.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled methods, such as the DealInventory write-behind flush.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
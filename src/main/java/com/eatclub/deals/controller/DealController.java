@@ -1,29 +1,59 @@
 package com.eatclub.deals.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.eatclub.deals.dto.DealBatchRequest;
+import com.eatclub.deals.dto.DealFilter;
 import com.eatclub.deals.dto.DealResponseDto;
+import com.eatclub.deals.dto.DealSort;
+import com.eatclub.deals.dto.DealWireFormat;
 import com.eatclub.deals.entity.Deal;
 import com.eatclub.deals.exception.InvalidInputException;
+import com.eatclub.deals.model.DealBatchResponse;
+import com.eatclub.deals.model.DealClaimResponse;
+import com.eatclub.deals.model.PeakTimeHistogramResponse;
 import com.eatclub.deals.model.PeakTimeResponse;
-import com.eatclub.deals.repository.DealRepository;
+import com.eatclub.deals.service.ActiveDealIndex;
+import com.eatclub.deals.service.DealClaimService;
+import com.eatclub.deals.service.DealCursor;
+import com.eatclub.deals.service.DealResponseSnapshotService;
+import com.eatclub.deals.service.DealSearchService;
+import com.eatclub.deals.service.DealTimeline;
 import com.eatclub.deals.service.PeakTimeCalculatorService;
 import com.eatclub.deals.util.DateTimeParser;
 
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
 import java.time.LocalTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/v1")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class DealController {
 
-    private final DealRepository dealRepository;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_TIMES = DealTimeline.DAY_MINUTES;
+
+    private final ActiveDealIndex activeDealIndex;
 
     @Autowired
     private PeakTimeCalculatorService peakTimeCalculatorService;
@@ -31,21 +61,65 @@ public class DealController {
     @Autowired
     private DateTimeParser dateTimeParser;
 
-    public DealController(DealRepository dealRepository) {
-        this.dealRepository = dealRepository;
+    @Autowired
+    private DealResponseSnapshotService dealResponseSnapshotService;
+
+    @Autowired
+    private DealSearchService dealSearchService;
+
+    @Autowired
+    private DealClaimService dealClaimService;
+
+    public DealController(ActiveDealIndex activeDealIndex) {
+        this.activeDealIndex = activeDealIndex;
     }
 
     /**
      * API endpoint to retrieve a list of active restaurant deals
-     * for a specified time of day.
+     * for a specified time of day. Deals are served from the in-memory ActiveDealIndex
+     * as a pre-serialized JSON body with a strong ETag, so a matching If-None-Match
+     * request gets a 304 Not Modified. When more deals are active than a snapshot may hold,
+     * they are streamed to the response one at a time instead, without an ETag.
+     *
+     * The deals can be narrowed with dineIn, lightning, minDiscount, suburb and cuisines (any of
+     * a comma-separated list) and ordered with sort. With limit or after, they are returned a page
+     * at a time, by default highest discount first; the X-Next-Cursor response header holds the
+     * value of after for the next page and is absent on the last page. Pages are serialized like
+     * snapshots and carry an ETag. Filtered or sorted results without paging are always streamed
+     * and carry no ETag.
+     *
+     * The body is JSON unless the Accept header asks for Smile (application/x-jackson-smile) or
+     * CBOR (application/cbor), which encode the same fields in about half the bytes.
      *
      * @param timeOfDay A string representing the time (e.g., "10:30am", "3:00pm", "15:00").
-     * @return A ResponseEntity containing a list of DealResponseDto objects if successful.
-     * Error responses for missing or invalid 'timeOfDay' are handled globally
+     * @param dineIn Only deals that are (true) or are not (false) dine-in.
+     * @param lightning Only lightning deals (true) or only regular ones (false).
+     * @param minDiscount Only deals with at least this discount.
+     * @param suburb Only deals of restaurants in this suburb.
+     * @param cuisines Only deals of restaurants serving any of these cuisines.
+     * @param sort "discount" (highest first) or "qtyLeft" (fewest left first).
+     * @param limit The page size, 1 to 100 (default 20 when paging).
+     * @param after The cursor returned with the previous page.
+     * @param accept The Accept header, which selects the DealWireFormat.
+     * @param webRequest The request, used to answer conditional requests and to write snapshots.
+     * @return A ResponseEntity streaming the list of DealResponseDto objects, or null when the body
+     * was a snapshot or a page and has already been written to the response.
+     * Error responses for missing or invalid parameters are handled globally
      * by the GlobalExceptionHandler.
+     * @throws IOException if writing a snapshot or a page to the response fails.
      */
     @GetMapping("/deals")
-    public ResponseEntity<List<DealResponseDto>> getDealsbyTimeOfDay(@RequestParam String timeOfDay) {
+    public ResponseEntity<StreamingResponseBody> getDealsbyTimeOfDay(@RequestParam String timeOfDay,
+                                                                     @RequestParam(required = false) Boolean dineIn,
+                                                                     @RequestParam(required = false) Boolean lightning,
+                                                                     @RequestParam(required = false) Double minDiscount,
+                                                                     @RequestParam(required = false) String suburb,
+                                                                     @RequestParam(required = false) List<String> cuisines,
+                                                                     @RequestParam(required = false) String sort,
+                                                                     @RequestParam(required = false) Integer limit,
+                                                                     @RequestParam(required = false) String after,
+                                                                     @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+                                                                     ServletWebRequest webRequest) throws IOException {
         if (timeOfDay.trim().isEmpty()) {
             if (timeOfDay.trim().isEmpty()) {
                 throw new InvalidInputException("The 'timeOfDay' parameter cannot be an empty string.");
@@ -54,17 +128,124 @@ public class DealController {
 
         LocalTime queryTime;
         queryTime = dateTimeParser.parseTimeRobustly(timeOfDay);
-        List<Deal> activeDeals = dealRepository.findActiveDealsAtTime(queryTime);
-        List<DealResponseDto> dealResponseDtos = activeDeals.stream()
-                                                            .map(DealResponseDto::fromEntity)
-                                                            .collect(Collectors.toList());
+        DealFilter filter = new DealFilter(dineIn, lightning, minDiscount, suburb, cuisines);
+        DealSort dealSort = (sort != null) ? DealSort.fromParameter(sort) : null;
+        DealWireFormat format = DealWireFormat.fromAcceptHeader(accept);
+
+        if (limit != null || after != null) {
+            writeDealsPage(queryTime, filter, (dealSort != null) ? dealSort : DealSort.DISCOUNT, limit, after, format, webRequest);
+            return null;
+        }
+        if (!filter.isUnfiltered() || dealSort != null) {
+            List<DealResponseDto> responses = dealSearchService.searchResponses(queryTime, filter, dealSort);
+            return stream(out -> dealResponseSnapshotService.writeResponses(responses, format, out), format);
+        }
+
+        List<Deal> deals = activeDealIndex.findActiveDealsAtTime(queryTime);
+        if (!dealResponseSnapshotService.isSnapshotted(deals)) {
+            return stream(out -> dealResponseSnapshotService.writeDeals(deals, format, out), format);
+        }
+
+        writeSnapshot(dealResponseSnapshotService.snapshotOf(deals, format), format, webRequest);
+        return null;
+    }
+
+    /**
+     * Streams the body from an async dispatch. The handler must be declared to return
+     * ResponseEntity&lt;StreamingResponseBody&gt;, or Spring serializes the body as a bean.
+     */
+    private ResponseEntity<StreamingResponseBody> stream(StreamingResponseBody body, DealWireFormat format) {
+        return ResponseEntity.ok()
+                             .varyBy(HttpHeaders.ACCEPT)
+                             .contentType(format.getMediaType())
+                             .body(body);
+    }
+
+    /**
+     * Writes a serialized body on the request thread, or 304 Not Modified when If-None-Match
+     * holds its ETag, as Spring does for a returned ResponseEntity with an ETag.
+     */
+    private void writeSnapshot(DealResponseSnapshotService.DealsSnapshot snapshot, DealWireFormat format,
+                               ServletWebRequest webRequest) throws IOException {
+        HttpServletResponse response = webRequest.getResponse();
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (webRequest.checkNotModified(snapshot.getEtag())) {
+            return;
+        }
+        response.setContentType(format.getMediaType().toString());
+        response.setContentLength(snapshot.getBody().length);
+        response.getOutputStream().write(snapshot.getBody());
+    }
 
-        return ResponseEntity.ok(dealResponseDtos);
+    private void writeDealsPage(LocalTime queryTime, DealFilter filter, DealSort sort, Integer limit, String after,
+                                DealWireFormat format, ServletWebRequest webRequest) throws IOException {
+        int pageSize = (limit != null) ? limit : DEFAULT_PAGE_SIZE;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new InvalidInputException(String.format(
+                    "The 'limit' parameter must be between 1 and %d, but was %d.", MAX_PAGE_SIZE, pageSize));
+        }
+        DealCursor cursor = (after != null) ? DealCursor.decode(after, sort) : null;
+
+        DealTimeline.DealPage page = dealSearchService.page(queryTime, filter, sort, cursor, pageSize);
+        if (page.getNext() != null) {
+            webRequest.getResponse().setHeader(NEXT_CURSOR_HEADER, page.getNext().encode());
+        }
+        writeSnapshot(dealResponseSnapshotService.snapshotOf(page.getDeals(), format), format, webRequest);
+    }
+
+    /**
+     * API endpoint to retrieve the active deals at many times of day in one request, e.g. every
+     * half hour for a day view. All times are resolved against one ActiveDealIndex timeline.
+     * Each restaurant and deal is listed once, and each time lists the indexes of its active deals.
+     *
+     * @param request The times of day, each in any format accepted by /v1/deals (at most 1440).
+     * @return A ResponseEntity containing the DealBatchResponse, with the times in request order.
+     * A missing, empty or oversized list and unparseable times are reported by the GlobalExceptionHandler.
+     */
+    @PostMapping(value = "/deals/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DealBatchResponse> getDealsBatch(@RequestBody DealBatchRequest request) {
+        List<String> timesOfDay = request.getTimesOfDay();
+        if (timesOfDay == null || timesOfDay.isEmpty()) {
+            throw new InvalidInputException("The 'timesOfDay' list must contain at least one time.");
+        }
+        if (timesOfDay.size() > MAX_BATCH_TIMES) {
+            throw new InvalidInputException(String.format(
+                    "The 'timesOfDay' list can hold at most %d times, but had %d.", MAX_BATCH_TIMES, timesOfDay.size()));
+        }
+
+        List<LocalTime> queryTimes = new ArrayList<>(timesOfDay.size());
+        for (String timeOfDay : timesOfDay) {
+            if (timeOfDay == null || timeOfDay.trim().isEmpty()) {
+                throw new InvalidInputException("The 'timesOfDay' list cannot contain an empty string.");
+            }
+            queryTimes.add(dateTimeParser.parseTimeRobustly(timeOfDay));
+        }
+        return ResponseEntity.ok(DealBatchResponse.fromTimeline(activeDealIndex.current(), queryTimes));
     }
 
+    /**
+     * API endpoint to claim one unit of a deal.
+     *
+     * @param dealObjectId The unique ID of the deal from the external data source.
+     * @return A ResponseEntity containing the DealClaimResponse with the quantity left.
+     * An unknown deal (404) or a sold-out deal (409) is reported by the GlobalExceptionHandler.
+     */
+    @PostMapping("/deals/{dealObjectId}/claim")
+    public ResponseEntity<DealClaimResponse> claimDeal(@PathVariable String dealObjectId) {
+        return ResponseEntity.ok(dealClaimService.claim(dealObjectId));
+    }
+
+    /**
+     * API endpoint to retrieve the window of the day in which the most deals are available.
+     *
+     * @param granularity The slot length in minutes (default 30). Must divide a day evenly, e.g. 1, 5, 15 or 60.
+     * @return A ResponseEntity containing the PeakTimeResponse, or 204 No Content if there are no deals.
+     * An invalid granularity is reported by the GlobalExceptionHandler.
+     */
     @GetMapping("/peak-time")
-    public ResponseEntity<PeakTimeResponse> getPeakDealTime() {
-        PeakTimeCalculatorService.PeakTimeWindow peakWindow = peakTimeCalculatorService.calculatePeakTimeWindow();
+    public ResponseEntity<PeakTimeResponse> getPeakDealTime(
+            @RequestParam(defaultValue = "" + PeakTimeCalculatorService.DEFAULT_GRANULARITY_MINUTES) int granularity) {
+        PeakTimeCalculatorService.PeakTimeWindow peakWindow = peakTimeCalculatorService.calculatePeakTimeWindow(granularity);
         if (peakWindow.getPeakTimeStart() == null) {
             return ResponseEntity.noContent().build();
         }
@@ -75,4 +256,21 @@ public class DealController {
         );
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    /**
+     * API endpoint to retrieve the number of available deals in every slot of the day,
+     * optionally with the busiest windows of the day.
+     *
+     * @param granularity The slot length in minutes (default 30). Must divide a day evenly.
+     * @param top The number of busiest non-overlapping windows to include (default 0).
+     * @return A ResponseEntity containing the PeakTimeHistogramResponse.
+     * Invalid parameters are reported by the GlobalExceptionHandler.
+     */
+    @GetMapping("/peak-time/histogram")
+    public ResponseEntity<PeakTimeHistogramResponse> getPeakTimeHistogram(
+            @RequestParam(defaultValue = "" + PeakTimeCalculatorService.DEFAULT_GRANULARITY_MINUTES) int granularity,
+            @RequestParam(defaultValue = "0") int top) {
+        PeakTimeCalculatorService.PeakTimeHistogram histogram = peakTimeCalculatorService.calculateHistogram(granularity, top);
+        return ResponseEntity.ok(PeakTimeHistogramResponse.fromHistogram(histogram));
+    }
+}
@@ -0,0 +1,65 @@
+package com.eatclub.deals.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.eatclub.deals.exception.AdminAccessDeniedException;
+import com.eatclub.deals.model.FeedIngestionResponse;
+import com.eatclub.deals.service.DealFeedIngestionService;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Admin endpoint for feed ingestion. It only exists when deals.feed.admin-token is set, usually
+ * from the DEALS_FEED_ADMIN_TOKEN environment variable, and every request must send that token
+ * in the X-Admin-Token header. A blank token fails startup rather than leaving the endpoint open.
+ */
+@RestController
+@RequestMapping("/v1")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "deals.feed.admin-token")
+public class FeedController {
+
+    static final String ADMIN_TOKEN_HEADER = "X-Admin-Token";
+
+    private final DealFeedIngestionService dealFeedIngestionService;
+    private final byte[] adminToken;
+
+    public FeedController(DealFeedIngestionService dealFeedIngestionService,
+                          @Value("${deals.feed.admin-token}") String adminToken) {
+        if (adminToken.isBlank()) {
+            throw new IllegalStateException("deals.feed.admin-token is set but blank; unset it to disable /v1/feed.");
+        }
+        this.dealFeedIngestionService = dealFeedIngestionService;
+        this.adminToken = adminToken.trim().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * API endpoint to bring the stored restaurants and deals in line with a complete feed.
+     * The request body is streamed, so feeds of any size can be posted. Only the differences
+     * are written; restaurants and deals missing from the feed are soft-deleted.
+     *
+     * @param token The X-Admin-Token header, which must match deals.feed.admin-token.
+     * @param feed The request body: a JSON object with a "restaurants" array, in the same format as challengedata.json.
+     * @return A ResponseEntity containing the FeedIngestionResponse with the number of rows inserted,
+     * updated, unchanged and deleted. A missing or wrong token (401), an unreadable or empty feed, and a
+     * feed that would delete too much of the catalogue (400) are reported by the GlobalExceptionHandler.
+     */
+    @PostMapping(value = "/feed", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<FeedIngestionResponse> ingestFeed(
+            @RequestHeader(value = ADMIN_TOKEN_HEADER, required = false) String token, InputStream feed) {
+        if (token == null || !MessageDigest.isEqual(adminToken, token.getBytes(StandardCharsets.UTF_8))) {
+            throw new AdminAccessDeniedException("A valid '" + ADMIN_TOKEN_HEADER + "' header is required.");
+        }
+        return ResponseEntity.ok(dealFeedIngestionService.ingest(feed));
+    }
+}
@@ -0,0 +1,19 @@
+package com.eatclub.deals.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The body of POST /v1/deals/batch: the times of day to list active deals for,
+ * each in any format accepted by the timeOfDay parameter of /v1/deals.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DealBatchRequest {
+
+    private List<String> timesOfDay;
+}
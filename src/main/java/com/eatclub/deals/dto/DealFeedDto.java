@@ -0,0 +1,22 @@
+package com.eatclub.deals.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A deal as it appears in the restaurant/deal feed. When start or end is missing,
+ * the deal runs for the opening hours of its restaurant.
+ */
+@Data
+@NoArgsConstructor
+public class DealFeedDto {
+    private String objectId;
+    private String discount;
+    private String dineIn;
+    private String lightning;
+    private String qtyLeft;
+    private String open;
+    private String close;
+    private String start;
+    private String end;
+}
@@ -0,0 +1,62 @@
+package com.eatclub.deals.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Optional filters on the active deals. A null (or empty) criterion does not filter.
+ * Suburb and cuisine names are compared case-insensitively; a deal matches the cuisines
+ * if its restaurant serves any of them. The filter is evaluated by DealTimeline on its
+ * attribute bitmaps rather than deal by deal.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DealFilter {
+
+    private Boolean dineIn;
+    private Boolean lightning;
+    private Double minDiscount;
+    private String suburb;
+    private List<String> cuisines;
+
+    public static DealFilter none() {
+        return new DealFilter();
+    }
+
+    /**
+     * @return true if no criterion is set, so every deal matches.
+     */
+    public boolean isUnfiltered() {
+        return dineIn == null && lightning == null && minDiscount == null
+                && suburb == null && !hasCuisines();
+    }
+
+    /**
+     * @return true if at least one cuisine is requested.
+     */
+    public boolean hasCuisines() {
+        return cuisines != null && !cuisines.isEmpty();
+    }
+
+    /**
+     * @return The requested cuisines, trimmed and lower-cased.
+     */
+    public List<String> normalizedCuisines() {
+        return (cuisines == null) ? List.of() : cuisines.stream()
+                                                        .map(DealFilter::normalizeCuisine)
+                                                        .toList();
+    }
+
+    /**
+     * @param cuisine A cuisine name.
+     * @return The name trimmed and lower-cased, as cuisines are compared.
+     */
+    public static String normalizeCuisine(String cuisine) {
+        return cuisine.trim().toLowerCase(Locale.ENGLISH);
+    }
+}
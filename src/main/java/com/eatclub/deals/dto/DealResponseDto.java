@@ -4,10 +4,12 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
-import java.time.format.DateTimeFormatter;
-import java.util.Locale;
+import java.time.LocalTime;
+import java.util.AbstractList;
+import java.util.List;
 
 import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.util.TimeOfDayStrings;
 
 
 @Data
@@ -30,7 +32,21 @@ public class DealResponseDto {
     private Boolean lightning;
     private Integer qtyLeft;
 
-    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("h:mma", Locale.ENGLISH);
+    /**
+     * Static factory method for the DealRepository projection, which selects the columns of a deal
+     * and of its restaurant without building either entity. The restaurant times are stored as the
+     * shared TimeOfDayStrings.
+     *
+     * @return A populated DealResponseDto.
+     */
+    public static DealResponseDto fromColumns(String restaurantObjectId, String restaurantName, String restaurantAddress1,
+                                              String restarantSuburb, LocalTime restaurantOpen, LocalTime restaurantClose,
+                                              String dealObjectId, Double discount, Boolean dineIn, Boolean lightning,
+                                              Integer qtyLeft) {
+        return new DealResponseDto(restaurantObjectId, restaurantName, restaurantAddress1, restarantSuburb,
+                                   TimeOfDayStrings.STANDARD.hhmma(restaurantOpen), TimeOfDayStrings.STANDARD.hhmma(restaurantClose),
+                                   dealObjectId, discount, dineIn, lightning, qtyLeft);
+    }
 
     /**
      * Static factory method to create a DealResponseDto from a Deal entity.
@@ -47,8 +63,8 @@ public class DealResponseDto {
             dto.setRestaurantName(deal.getRestaurantNameDenormalized());
             dto.setRestaurantAddress1(deal.getRestaurant().getRestaurantAddress1());
             dto.setRestarantSuburb(deal.getRestaurant().getRestarantSuburb());
-            dto.setRestaurantOpen(deal.getRestaurant().getOpenTime().format(TIME_FORMATTER).toUpperCase(Locale.ENGLISH));
-            dto.setRestaurantClose(deal.getRestaurant().getCloseTime().format(TIME_FORMATTER).toUpperCase(Locale.ENGLISH));
+            dto.setRestaurantOpen(TimeOfDayStrings.STANDARD.hhmma(deal.getRestaurant().getOpenTime()));
+            dto.setRestaurantClose(TimeOfDayStrings.STANDARD.hhmma(deal.getRestaurant().getCloseTime()));
         }
 
         // Populate Deal details
@@ -60,4 +76,24 @@ public class DealResponseDto {
 
         return dto;
     }
-}
\ No newline at end of file
+
+    /**
+     * A read-only view of the deals as DealResponseDto, mapping each deal only when it is read.
+     *
+     * @param deals The Deal entities to convert.
+     * @return A list of the same size as deals.
+     */
+    public static List<DealResponseDto> fromEntities(List<Deal> deals) {
+        return new AbstractList<>() {
+            @Override
+            public DealResponseDto get(int index) {
+                return fromEntity(deals.get(index));
+            }
+
+            @Override
+            public int size() {
+                return deals.size();
+            }
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.eatclub.deals.dto;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Collectors;
+
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.exception.InvalidInputException;
+
+/**
+ * Sort orders for the deal search. Every order ranks deals by a numeric key, ascending,
+ * then by id, so it is total and stable and can be resumed from a cursor.
+ */
+public enum DealSort {
+
+    /** Highest discount first. Deals without a discount come last. */
+    DISCOUNT("discount") {
+        @Override
+        public double keyOf(Deal deal) {
+            return (deal.getDiscount() != null) ? -deal.getDiscount() : Double.POSITIVE_INFINITY;
+        }
+    },
+
+    /** Fewest left first, for deals about to sell out. */
+    QTY_LEFT("qtyLeft") {
+        @Override
+        public double keyOf(Deal deal) {
+            return deal.getQtyLeft();
+        }
+    };
+
+    private final String parameterValue;
+    private final Comparator<Deal> order;
+
+    DealSort(String parameterValue) {
+        this.parameterValue = parameterValue;
+        this.order = Comparator.<Deal>comparingDouble(this::keyOf).thenComparingLong(Deal::getId);
+    }
+
+    /**
+     * @return The sort key of the deal; lower keys come first.
+     */
+    public abstract double keyOf(Deal deal);
+
+    public Comparator<Deal> order() {
+        return order;
+    }
+
+    public String getParameterValue() {
+        return parameterValue;
+    }
+
+    /**
+     * @param value The value of the 'sort' request parameter.
+     * @return The matching DealSort.
+     * @throws InvalidInputException if no sort order has that name.
+     */
+    public static DealSort fromParameter(String value) {
+        for (DealSort sort : values()) {
+            if (sort.parameterValue.equalsIgnoreCase(value)) {
+                return sort;
+            }
+        }
+        throw new InvalidInputException(String.format("The 'sort' parameter must be one of %s, but was '%s'.",
+                Arrays.stream(values()).map(DealSort::getParameterValue).collect(Collectors.joining(", ")), value));
+    }
+}
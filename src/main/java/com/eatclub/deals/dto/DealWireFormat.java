@@ -0,0 +1,61 @@
+package com.eatclub.deals.dto;
+
+import java.util.List;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Encodings of the /v1/deals body. JSON is the default; Smile and CBOR are binary encodings of
+ * the same Jackson model, for internal consumers that send a matching Accept header.
+ */
+public enum DealWireFormat {
+
+    JSON(MediaType.APPLICATION_JSON),
+    SMILE(new MediaType("application", "x-jackson-smile")),
+    CBOR(MediaType.APPLICATION_CBOR);
+
+    private final MediaType mediaType;
+
+    DealWireFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Picks the format for an Accept header: the most specific, highest quality accepted type
+     * that one of the formats matches. Types with q=0 are ignored. Wildcards, a missing header,
+     * an unparseable header and types matching no format all give JSON.
+     *
+     * @param accept The value of the Accept request header, or null.
+     * @return The DealWireFormat to respond with.
+     */
+    public static DealWireFormat fromAcceptHeader(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return JSON;
+        }
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(acceptedTypes);
+        for (MediaType acceptedType : acceptedTypes) {
+            if (acceptedType.getQualityValue() == 0) {
+                // q=0 means "not acceptable"; it must never select a format.
+                continue;
+            }
+            for (DealWireFormat format : values()) {
+                if (acceptedType.includes(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,24 @@
+package com.eatclub.deals.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * A restaurant, with its deals, as it appears in the restaurant/deal feed.
+ * All values are kept as the strings found in the feed.
+ */
+@Data
+@NoArgsConstructor
+public class RestaurantFeedDto {
+    private String objectId;
+    private String name;
+    private String address1;
+    private String suburb;
+    private List<String> cuisines;
+    private String imageLink;
+    private String open;
+    private String close;
+    private List<DealFeedDto> deals;
+}
@@ -12,15 +12,25 @@ import java.time.LocalTime;
     @Index(name = "idx_deal_object_id", columnList = "deal_object_id", unique = true),
     @Index(name = "idx_restaurant_id", columnList = "restaurant_id"),
     @Index(name = "idx_deal_time_range", columnList = "start_time, end_time"),
-    @Index(name = "idx_deal_qty_left", columnList = "qty_left")
+    @Index(name = "idx_deal_qty_left", columnList = "qty_left"),
+    @Index(name = "idx_deal_discount_id", columnList = "discount DESC, id"),
+    @Index(name = "idx_deal_qty_left_id", columnList = "qty_left, id"),
+    @Index(name = "idx_deal_dine_in_discount", columnList = "dine_in, discount DESC"),
+    @Index(name = "idx_deal_lightning_discount", columnList = "lightning, discount DESC")
 })
+@EntityListeners(DealCatalogChangeListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Deal {
 
+    /**
+     * Ids are allocated from a database sequence in pooled blocks of 50, so Hibernate
+     * can assign ids without a round trip per row and group INSERTs into JDBC batches.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "deal_id_generator")
+    @SequenceGenerator(name = "deal_id_generator", sequenceName = "deal_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "deal_object_id", unique = true, nullable = false, length = 50)
@@ -48,6 +58,13 @@ public class Deal {
     @Column(name = "qty_left", nullable = false)
     private Integer qtyLeft;
 
+    /**
+     * Units claimed through this service. Kept apart from qtyLeft so that a feed, which only
+     * knows the deal's stock, cannot hand back units that were already claimed.
+     */
+    @Column(name = "qty_claimed", nullable = false)
+    private Integer qtyClaimed = 0;
+
     @Column(name = "start_time", nullable = false)
     private LocalTime startTime;
 
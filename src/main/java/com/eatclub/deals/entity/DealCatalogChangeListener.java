@@ -0,0 +1,111 @@
+package com.eatclub.deals.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * JPA entity listener for Deal and Restaurant writes.
+ * Instead of publishing an event per row, it collects the deal changes of the current
+ * transaction and publishes one DealCatalogChangedEvent after the commit, so a bulk
+ * load of thousands of rows triggers one refresh of the in-memory views, not thousands.
+ */
+@Component
+public class DealCatalogChangeListener {
+
+    /**
+     * Above this many deal writes in one transaction the individual changes are dropped
+     * and listeners are asked to reload, which keeps the buffer bounded for bulk loads.
+     */
+    static final int MAX_TRACKED_CHANGES = 10_000;
+
+    private static final Object TRANSACTION_RESOURCE_KEY = DealCatalogChangeListener.class.getName();
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public DealCatalogChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onCatalogChange(Object entity) {
+        record(entity, false);
+    }
+
+    @PostRemove
+    public void onCatalogRemove(Object entity) {
+        record(entity, true);
+    }
+
+    /**
+     * Records a deal written by a bulk JPQL UPDATE. Such statements bypass the entity
+     * callbacks above, so the caller passes the deal as reloaded after the update.
+     *
+     * @param deal The updated deal.
+     */
+    public void onBulkUpdate(Deal deal) {
+        record(deal, false);
+    }
+
+    private void record(Object entity, boolean removed) {
+        DealCatalogChangedEvent.DealChange change =
+                (entity instanceof Deal deal) ? DealCatalogChangedEvent.DealChange.of(deal, removed) : null;
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<DealCatalogChangedEvent.DealChange> changes =
+                    (change != null) ? Collections.singletonList(change) : Collections.emptyList();
+            eventPublisher.publishEvent(new DealCatalogChangedEvent(changes, false));
+            return;
+        }
+
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(TRANSACTION_RESOURCE_KEY);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(TRANSACTION_RESOURCE_KEY, pending);
+            registerPublication(pending);
+        }
+        if (change != null) {
+            pending.add(change);
+        }
+    }
+
+    private void registerPublication(PendingChanges pending) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eventPublisher.publishEvent(new DealCatalogChangedEvent(pending.dealChanges, pending.overflowed));
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_RESOURCE_KEY);
+            }
+        });
+    }
+
+    private static class PendingChanges {
+        List<DealCatalogChangedEvent.DealChange> dealChanges = new ArrayList<>();
+        boolean overflowed;
+
+        void add(DealCatalogChangedEvent.DealChange change) {
+            if (overflowed) {
+                return;
+            }
+            if (dealChanges.size() >= MAX_TRACKED_CHANGES) {
+                overflowed = true;
+                dealChanges = Collections.emptyList();
+                return;
+            }
+            dealChanges.add(change);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.eatclub.deals.entity;
+
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Application event published once per committed transaction that created, updated
+ * or removed a Deal or Restaurant. In-memory views of the catalogue listen for it
+ * to know when they need to be rebuilt.
+ *
+ * The event carries the new state of every deal written in the transaction, so views
+ * that only depend on deal time windows can be patched in place. When a transaction
+ * writes too many deals to track one by one, the list is dropped and fullReload is set.
+ */
+public class DealCatalogChangedEvent {
+
+    private final List<DealChange> dealChanges;
+    private final boolean fullReload;
+
+    public DealCatalogChangedEvent(List<DealChange> dealChanges, boolean fullReload) {
+        this.dealChanges = Collections.unmodifiableList(dealChanges);
+        this.fullReload = fullReload;
+    }
+
+    public static DealCatalogChangedEvent fullReload() {
+        return new DealCatalogChangedEvent(Collections.emptyList(), true);
+    }
+
+    public List<DealChange> getDealChanges() {
+        return dealChanges;
+    }
+
+    public boolean isFullReload() {
+        return fullReload;
+    }
+
+    /**
+     * The state of a single deal after a write. A deal that was soft-deleted
+     * or removed is reported with live set to false.
+     */
+    public static class DealChange {
+        private final Long dealId;
+        private final LocalTime startTime;
+        private final LocalTime endTime;
+        private final boolean live;
+
+        public DealChange(Long dealId, LocalTime startTime, LocalTime endTime, boolean live) {
+            this.dealId = dealId;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.live = live;
+        }
+
+        public static DealChange of(Deal deal, boolean removed) {
+            boolean live = !removed && !Boolean.TRUE.equals(deal.getIsDeleted());
+            return new DealChange(deal.getId(), deal.getStartTime(), deal.getEndTime(), live);
+        }
+
+        public Long getDealId() {
+            return dealId;
+        }
+
+        public LocalTime getStartTime() {
+            return startTime;
+        }
+
+        public LocalTime getEndTime() {
+            return endTime;
+        }
+
+        public boolean isLive() {
+            return live;
+        }
+    }
+}
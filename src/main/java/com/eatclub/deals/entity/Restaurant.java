@@ -3,23 +3,45 @@ package com.eatclub.deals.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.time.Instant;
 import java.time.LocalTime;
-
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Restaurants are kept in the "restaurants" second-level cache region (Caffeine through JCache,
+ * sized and expired in application.conf): they change far less often than their deals, so
+ * deals are loaded without joining them and their restaurants are resolved from memory.
+ * Lazy restaurant proxies that miss the cache are loaded 100 at a time.
+ */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "restaurants")
+@BatchSize(size = 100)
 @Table(name = "restaurants", indexes = {
     @Index(name = "idx_restaurant_object_id", columnList = "restaurant_object_id", unique = true),
     @Index(name = "idx_restaurant_name", columnList = "name"),
     @Index(name = "idx_restaurant_suburb", columnList = "suburb")
 })
+@EntityListeners(DealCatalogChangeListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Restaurant {
 
+    /**
+     * Ids are allocated from a database sequence in pooled blocks of 50, so Hibernate
+     * can assign ids without a round trip per row and group INSERTs into JDBC batches.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "restaurant_id_generator")
+    @SequenceGenerator(name = "restaurant_id_generator", sequenceName = "restaurant_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "restaurant_object_id", unique = true, nullable = false, length = 50)
@@ -34,8 +56,21 @@ public class Restaurant {
     @Column(name = "suburb", length = 100)
     private String restarantSuburb;
 
-    @Column(name = "cuisines", length = 500)
-    private String cuisines;
+    /**
+     * One row per cuisine in restaurant_cuisines, in feed order, so a cuisine lookup is an
+     * indexed match on a single value instead of a LIKE over a joined string. The collection
+     * is lazy and left out of equals, hashCode and toString so detached restaurants never load it.
+     */
+    @ElementCollection
+    @CollectionTable(name = "restaurant_cuisines",
+                     joinColumns = @JoinColumn(name = "restaurant_id"),
+                     indexes = @Index(name = "idx_restaurant_cuisine", columnList = "cuisine"))
+    @OrderColumn(name = "cuisine_order")
+    @Column(name = "cuisine", nullable = false, length = 100)
+    @BatchSize(size = 100)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private List<String> cuisines = new ArrayList<>();
 
     @Column(name = "image_link", length = 1024)
     private String imageLink;
@@ -0,0 +1,12 @@
+package com.eatclub.deals.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.UNAUTHORIZED)
+public class AdminAccessDeniedException extends RuntimeException {
+
+    public AdminAccessDeniedException(String message) {
+        super(message);
+    }
+}
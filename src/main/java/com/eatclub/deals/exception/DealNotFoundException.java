@@ -0,0 +1,12 @@
+package com.eatclub.deals.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class DealNotFoundException extends RuntimeException {
+
+    public DealNotFoundException(String message) {
+        super(message);
+    }
+}
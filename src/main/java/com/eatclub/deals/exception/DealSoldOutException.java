@@ -0,0 +1,12 @@
+package com.eatclub.deals.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class DealSoldOutException extends RuntimeException {
+
+    public DealSoldOutException(String message) {
+        super(message);
+    }
+}
@@ -3,10 +3,13 @@ package com.eatclub.deals.exception;
 import com.eatclub.deals.model.ErrorResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
 import java.time.format.DateTimeParseException;
 
 @ControllerAdvice
@@ -60,6 +63,48 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles DealNotFoundException.
+     * This exception is thrown when no live deal has the requested dealObjectId.
+     * Returns HTTP 404 Not Found.
+     *
+     * @param ex The DealNotFoundException instance.
+     * @return A ResponseEntity containing an ErrorResponse with "DEAL_NOT_FOUND" code.
+     */
+    @ExceptionHandler(DealNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleDealNotFoundException(DealNotFoundException ex) {
+        ErrorResponse errorResponse = new ErrorResponse("DEAL_NOT_FOUND", ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Handles DealSoldOutException.
+     * This exception is thrown when a deal is claimed after its last unit was taken.
+     * Returns HTTP 409 Conflict.
+     *
+     * @param ex The DealSoldOutException instance.
+     * @return A ResponseEntity containing an ErrorResponse with "DEAL_SOLD_OUT" code.
+     */
+    @ExceptionHandler(DealSoldOutException.class)
+    public ResponseEntity<ErrorResponse> handleDealSoldOutException(DealSoldOutException ex) {
+        ErrorResponse errorResponse = new ErrorResponse("DEAL_SOLD_OUT", ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handles AdminAccessDeniedException.
+     * This exception is thrown when an admin endpoint is called without the admin token.
+     * Returns HTTP 401 Unauthorized.
+     *
+     * @param ex The AdminAccessDeniedException instance.
+     * @return A ResponseEntity containing an ErrorResponse with "UNAUTHORIZED" code.
+     */
+    @ExceptionHandler(AdminAccessDeniedException.class)
+    public ResponseEntity<ErrorResponse> handleAdminAccessDeniedException(AdminAccessDeniedException ex) {
+        ErrorResponse errorResponse = new ErrorResponse("UNAUTHORIZED", ex.getMessage());
+        return new ResponseEntity<>(errorResponse, HttpStatus.UNAUTHORIZED);
+    }
+
     /**
      * Handles MethodArgumentTypeMismatchException.
      * This exception is thrown when a method argument (like a @RequestParam or @PathVariable)
@@ -77,6 +122,52 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handles HttpMessageNotReadableException.
+     * This exception is thrown when a @RequestBody is missing or is not valid JSON for its type.
+     * Returns HTTP 400 Bad Request.
+     *
+     * @param ex The HttpMessageNotReadableException instance.
+     * @return A ResponseEntity containing an ErrorResponse with "INVALID_INPUT" code.
+     */
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ErrorResponse> handleHttpMessageNotReadable(HttpMessageNotReadableException ex) {
+        ErrorResponse errorResponse = new ErrorResponse("INVALID_INPUT", "The request body is missing or could not be read.");
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles NoResourceFoundException.
+     * This exception is thrown when no handler is mapped to the request path, e.g. /v1/feed
+     * when deals.feed.admin-token is not set.
+     * Returns HTTP 404 Not Found.
+     *
+     * @param ex The NoResourceFoundException instance.
+     * @return A ResponseEntity containing an ErrorResponse with "NOT_FOUND" code.
+     */
+    @ExceptionHandler(NoResourceFoundException.class)
+    public ResponseEntity<ErrorResponse> handleNoResourceFound(NoResourceFoundException ex) {
+        ErrorResponse errorResponse = new ErrorResponse("NOT_FOUND", "No endpoint is served at '/" + ex.getResourcePath() + "'.");
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Handles ResponseStatusException.
+     * On the reactive stack this is how WebFlux reports a path no handler is mapped to,
+     * with a NoResourceFoundException of its own rather than the servlet one above.
+     * Returns the exception's status.
+     *
+     * @param ex The ResponseStatusException instance.
+     * @return A ResponseEntity containing an ErrorResponse named after the status, e.g. "NOT_FOUND".
+     */
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorResponse> handleResponseStatus(ResponseStatusException ex) {
+        HttpStatus status = HttpStatus.valueOf(ex.getStatusCode().value());
+        ErrorResponse errorResponse = new ErrorResponse(status.name(),
+                (ex.getReason() != null) ? ex.getReason() : status.getReasonPhrase());
+        return new ResponseEntity<>(errorResponse, status);
+    }
+
     /**
      * A generic fallback exception handler for any unhandled exceptions.
      * This should always be included as a last resort to catch any unexpected errors.
@@ -0,0 +1,138 @@
+package com.eatclub.deals.model;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.entity.Restaurant;
+import com.eatclub.deals.service.DealTimeline;
+import com.eatclub.deals.util.TimeOfDayStrings;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * The deals active at several times of day. Every restaurant and deal is listed once;
+ * a deal refers to its restaurant, and each time to its active deals, by index.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DealBatchResponse {
+
+    private List<BatchRestaurant> restaurants;
+    private List<BatchDeal> deals;
+    private List<TimeDeals> times;
+
+    /**
+     * Static factory method to create a DealBatchResponse from a timeline. Times in the same
+     * segment of the timeline share one index list, so each segment is read only once.
+     * Deals are listed in the order they first appear, in the order of the query times.
+     *
+     * @param timeline The timeline to read from.
+     * @param queryTimes The times of day, in the order they were requested.
+     * @return A populated DealBatchResponse.
+     */
+    public static DealBatchResponse fromTimeline(DealTimeline timeline, List<LocalTime> queryTimes) {
+        List<BatchRestaurant> restaurants = new ArrayList<>();
+        List<BatchDeal> deals = new ArrayList<>();
+        List<TimeDeals> times = new ArrayList<>(queryTimes.size());
+
+        Map<String, Integer> restaurantIndexes = new HashMap<>();
+        int[] dealIndexOfOrdinal = new int[timeline.getDealCount()];
+        Arrays.fill(dealIndexOfOrdinal, -1);
+        Map<Integer, int[]> segmentDealIndexes = new HashMap<>();
+
+        for (LocalTime queryTime : queryTimes) {
+            int segment = timeline.segmentAt(queryTime);
+            int[] dealIndexes = segmentDealIndexes.get(segment);
+            if (dealIndexes == null) {
+                int[] ordinals = timeline.getSegmentOrdinals(segment);
+                dealIndexes = new int[ordinals.length];
+                for (int i = 0; i < ordinals.length; i++) {
+                    int ordinal = ordinals[i];
+                    if (dealIndexOfOrdinal[ordinal] < 0) {
+                        Deal deal = timeline.getDeal(ordinal);
+                        dealIndexOfOrdinal[ordinal] = deals.size();
+                        deals.add(BatchDeal.fromEntity(deal, restaurantIndex(deal, restaurants, restaurantIndexes)));
+                    }
+                    dealIndexes[i] = dealIndexOfOrdinal[ordinal];
+                }
+                segmentDealIndexes.put(segment, dealIndexes);
+            }
+            times.add(new TimeDeals(TimeOfDayStrings.STANDARD.hhmm(queryTime), dealIndexes));
+        }
+        return new DealBatchResponse(restaurants, deals, times);
+    }
+
+    private static Integer restaurantIndex(Deal deal, List<BatchRestaurant> restaurants,
+                                           Map<String, Integer> restaurantIndexes) {
+        Restaurant restaurant = deal.getRestaurant();
+        if (restaurant == null) {
+            return null;
+        }
+        return restaurantIndexes.computeIfAbsent(restaurant.getRestaurantObjectId(), key -> {
+            restaurants.add(BatchRestaurant.fromEntity(deal));
+            return restaurants.size() - 1;
+        });
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchRestaurant {
+        private String restaurantObjectId;
+        private String restaurantName;
+        private String restaurantAddress1;
+        private String restarantSuburb;
+        private String restaurantOpen;
+        private String restaurantClose;
+
+        /**
+         * Takes the restaurant fields of the deal as DealResponseDto.fromEntity does,
+         * including the deal's denormalized restaurant name.
+         */
+        static BatchRestaurant fromEntity(Deal deal) {
+            Restaurant restaurant = deal.getRestaurant();
+            return new BatchRestaurant(
+                    restaurant.getRestaurantObjectId(),
+                    deal.getRestaurantNameDenormalized(),
+                    restaurant.getRestaurantAddress1(),
+                    restaurant.getRestarantSuburb(),
+                    TimeOfDayStrings.STANDARD.hhmma(restaurant.getOpenTime()),
+                    TimeOfDayStrings.STANDARD.hhmma(restaurant.getCloseTime()));
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchDeal {
+        private String dealObjectId;
+        /** The index of the deal's restaurant in restaurants. */
+        private Integer restaurant;
+        private Double discount;
+        private Boolean dineIn;
+        private Boolean lightning;
+        private Integer qtyLeft;
+
+        static BatchDeal fromEntity(Deal deal, Integer restaurant) {
+            return new BatchDeal(deal.getDealObjectId(), restaurant, deal.getDiscount(),
+                                 deal.getDineIn(), deal.getLightning(), deal.getQtyLeft());
+        }
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TimeDeals {
+        private String timeOfDay;
+        /** The indexes in deals of the deals active at timeOfDay. */
+        private int[] deals;
+    }
+}
@@ -0,0 +1,13 @@
+package com.eatclub.deals.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DealClaimResponse {
+    private String dealObjectId;
+    private int qtyLeft;
+}
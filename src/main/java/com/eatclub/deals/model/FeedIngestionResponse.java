@@ -0,0 +1,19 @@
+package com.eatclub.deals.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedIngestionResponse {
+    private int restaurantsInserted;
+    private int restaurantsUpdated;
+    private int restaurantsUnchanged;
+    private int restaurantsDeleted;
+    private int dealsInserted;
+    private int dealsUpdated;
+    private int dealsUnchanged;
+    private int dealsDeleted;
+}
@@ -0,0 +1,69 @@
+package com.eatclub.deals.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.eatclub.deals.service.PeakTimeCalculatorService;
+import com.eatclub.deals.util.TimeOfDayStrings;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PeakTimeHistogramResponse {
+
+    private int granularityMinutes;
+    private List<SlotDealCount> slots;
+    private List<PeakWindow> peakWindows;
+
+    /**
+     * Static factory method to create a PeakTimeHistogramResponse from a calculated histogram.
+     *
+     * @param histogram The histogram calculated by PeakTimeCalculatorService.
+     * @return A populated PeakTimeHistogramResponse.
+     */
+    public static PeakTimeHistogramResponse fromHistogram(PeakTimeCalculatorService.PeakTimeHistogram histogram) {
+        TimeOfDayStrings times = TimeOfDayStrings.STANDARD;
+        int granularity = histogram.getGranularityMinutes();
+        int[] slotDealCounts = histogram.getSlotDealCounts();
+
+        List<SlotDealCount> slots = new ArrayList<>(slotDealCounts.length);
+        for (int i = 0; i < slotDealCounts.length; i++) {
+            slots.add(new SlotDealCount(
+                    times.hhmm(i * granularity),
+                    times.hhmm((i + 1) * granularity),
+                    slotDealCounts[i]));
+        }
+
+        List<PeakWindow> peakWindows = new ArrayList<>(histogram.getBusiestWindows().size());
+        for (PeakTimeCalculatorService.PeakTimeWindow window : histogram.getBusiestWindows()) {
+            peakWindows.add(new PeakWindow(
+                    times.hhmm(window.getPeakTimeStart()),
+                    times.hhmm(window.getPeakTimeEnd()),
+                    window.getActiveDeals()));
+        }
+
+        return new PeakTimeHistogramResponse(granularity, slots, peakWindows);
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SlotDealCount {
+        private String slotStart;
+        private String slotEnd;
+        private int activeDeals;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PeakWindow {
+        private String peakTimeStart;
+        private String peakTimeEnd;
+        private int activeDeals;
+    }
+}
@@ -1,7 +1,8 @@
 package com.eatclub.deals.model;
 
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
+
+import com.eatclub.deals.util.TimeOfDayStrings;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -16,9 +17,8 @@ public class PeakTimeResponse {
     private String peakTimeEnd;
 
     public PeakTimeResponse(LocalTime peakTimeStart, LocalTime peakTimeEnd) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
-        this.peakTimeStart = (peakTimeStart != null) ? peakTimeStart.format(formatter) : null;
-        this.peakTimeEnd = (peakTimeEnd != null) ? peakTimeEnd.format(formatter) : null;
+        this.peakTimeStart = TimeOfDayStrings.STANDARD.hhmm(peakTimeStart);
+        this.peakTimeEnd = TimeOfDayStrings.STANDARD.hhmm(peakTimeEnd);
     }
     
 }
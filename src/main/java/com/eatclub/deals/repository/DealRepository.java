@@ -1,17 +1,24 @@
 package com.eatclub.deals.repository;
 
+import org.hibernate.Hibernate;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.eatclub.deals.entity.Deal;
 
+import java.time.Instant;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface DealRepository extends JpaRepository<Deal, Long> {
+public interface DealRepository extends JpaRepository<Deal, Long>, JpaSpecificationExecutor<Deal>, DealResponseRepository {
 
     /**
      * Finds a Deal by its unique dealObjectId.
@@ -21,25 +28,126 @@ public interface DealRepository extends JpaRepository<Deal, Long> {
      */
     Optional<Deal> findByDealObjectId(String dealObjectId);
 
+    /**
+     * Finds all Deals with one of the given dealObjectIds, including soft-deleted ones.
+     *
+     * @param dealObjectIds The unique IDs of the deals from the external data source.
+     * @return A list of the Deals found.
+     */
+    List<Deal> findByDealObjectIdIn(Collection<String> dealObjectIds);
+
+    /**
+     * Fetches the dealObjectId of every deal that is not soft-deleted.
+     *
+     * @return A list of dealObjectIds.
+     */
+    @Query("SELECT d.dealObjectId FROM Deal d WHERE d.isDeleted = FALSE")
+    List<String> findValidDealObjectIds();
+
     /**
      * Finds all active deals for a given time of day.
+     * A deal whose end time is before its start time wraps past midnight and is
+     * active on both sides of it.
      * @param queryTime The LocalTime to check for active deals (e.g., 10:30, 15:00).
+     * @return A list of active deals, with their restaurants loaded.
+     */
+    @Transactional(readOnly = true)
+    default List<Deal> findActiveDealsAtTime(LocalTime queryTime) {
+        return withRestaurants(findActiveDealRowsAtTime(queryTime));
+    }
+
+    /**
+     * Selects the deal columns of findActiveDealsAtTime only; restaurants are left as lazy proxies.
+     *
+     * @param queryTime The LocalTime to check for active deals.
      * @return A list of active deals.
      */
-    @Query("SELECT d FROM Deal d JOIN FETCH d.restaurant " +
+    @Query("SELECT d FROM Deal d " +
            "WHERE d.qtyLeft > 0 " +
            "AND d.isDeleted = FALSE " +
-           "AND (:queryTime >= d.startTime AND :queryTime <= d.endTime)")
-    List<Deal> findActiveDealsAtTime(LocalTime queryTime);
+           "AND ((d.startTime <= d.endTime AND :queryTime >= d.startTime AND :queryTime <= d.endTime) " +
+           "OR (d.startTime > d.endTime AND (:queryTime >= d.startTime OR :queryTime <= d.endTime)))")
+    List<Deal> findActiveDealRowsAtTime(@Param("queryTime") LocalTime queryTime);
 
     /**
      * This method fetches all deals that are not soft-deleted, regardless of their current quantity or specific time.
      *
-     * @return A list of all valid (not deleted) deals
+     * @return A list of all valid (not deleted) deals, with their restaurants loaded.
      */
-    @Query("SELECT d FROM Deal d JOIN FETCH d.restaurant " +
-           "WHERE d.isDeleted = FALSE")
-    List<Deal> findAllValidDeals();
+    @Transactional(readOnly = true)
+    default List<Deal> findAllValidDeals() {
+        return withRestaurants(findValidDealRows());
+    }
 
-}
+    /**
+     * Selects the deal columns of findAllValidDeals only; restaurants are left as lazy proxies.
+     *
+     * @return A list of all valid (not deleted) deals.
+     */
+    @Query("SELECT d FROM Deal d WHERE d.isDeleted = FALSE")
+    List<Deal> findValidDealRows();
+
+    /**
+     * Initializes the restaurant proxy of every deal inside the caller's transaction, so the
+     * deals can be used once detached. Restaurants are read from the second-level cache, and
+     * only the ones missing from it are loaded, in batches.
+     */
+    private static List<Deal> withRestaurants(List<Deal> deals) {
+        for (Deal deal : deals) {
+            Hibernate.initialize(deal.getRestaurant());
+        }
+        return deals;
+    }
 
+    /**
+     * Fetches the time window of every deal that is not soft-deleted, without loading
+     * Deal or Restaurant entities.
+     *
+     * @return A list of DealTimeWindow projections.
+     */
+    @Query("SELECT new com.eatclub.deals.repository.DealTimeWindow(d.id, d.startTime, d.endTime) " +
+           "FROM Deal d WHERE d.isDeleted = FALSE")
+    List<DealTimeWindow> findValidDealTimeWindows();
+
+    /**
+     * Counts the deals that are not soft-deleted per distinct time window.
+     * The aggregation runs in the database, so the result size is bounded by the number of
+     * distinct windows and does not grow with the number of deals.
+     *
+     * @return A list of DealTimeWindowCount rows.
+     */
+    @Query("SELECT new com.eatclub.deals.repository.DealTimeWindowCount(d.startTime, d.endTime, COUNT(d)) " +
+           "FROM Deal d WHERE d.isDeleted = FALSE " +
+           "GROUP BY d.startTime, d.endTime")
+    List<DealTimeWindowCount> countValidDealsByTimeWindow();
+
+    /**
+     * Takes one unit of a deal in a single conditional UPDATE, so concurrent claims never
+     * read a quantity and write it back: the database decrements the row only while
+     * qtyLeft is positive, and a claim that finds it at zero updates nothing.
+     * Bulk updates bypass entity callbacks, so the caller must publish the catalogue change.
+     *
+     * @param dealObjectId The unique ID of the deal from the external data source.
+     * @param updatedAt The modification time to record.
+     * @return 1 if a unit was taken, 0 if the deal is sold out, deleted or unknown.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Deal d SET d.qtyLeft = d.qtyLeft - 1, d.qtyClaimed = d.qtyClaimed + 1, d.updatedAt = :updatedAt " +
+           "WHERE d.dealObjectId = :dealObjectId AND d.qtyLeft > 0 AND d.isDeleted = FALSE")
+    int decrementQtyLeft(@Param("dealObjectId") String dealObjectId, @Param("updatedAt") Instant updatedAt);
+
+    /**
+     * Writes back units already taken in memory by the DealInventory, floored at zero in case
+     * the stored quantity was lowered in the meantime.
+     *
+     * @param id The id of the deal.
+     * @param count The number of units taken since the last write.
+     * @param updatedAt The modification time to record.
+     * @return The number of rows updated.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Deal d SET d.qtyLeft = CASE WHEN d.qtyLeft > :count THEN d.qtyLeft - :count ELSE 0 END, " +
+           "d.qtyClaimed = d.qtyClaimed + :count, d.updatedAt = :updatedAt WHERE d.id = :id")
+    int decrementQtyLeftBy(@Param("id") Long id, @Param("count") int count, @Param("updatedAt") Instant updatedAt);
+
+}
@@ -0,0 +1,25 @@
+package com.eatclub.deals.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.eatclub.deals.dto.DealResponseDto;
+import com.eatclub.deals.entity.Deal;
+
+/**
+ * DealRepository fragment that reads deals straight into DealResponseDto rows.
+ */
+public interface DealResponseRepository {
+
+    /**
+     * Selects the deals matching the specification as DealResponseDto rows, in one read-only
+     * query that joins their restaurants. No Deal or Restaurant entity is built, so nothing is
+     * added to the persistence context or tracked for dirty checking.
+     *
+     * @param spec The deals to select and their order, e.g. a DealSpecifications.search
+     *             combined with DealSpecifications.orderedBy.
+     * @return The rows.
+     */
+    List<DealResponseDto> findResponses(Specification<Deal> spec);
+}
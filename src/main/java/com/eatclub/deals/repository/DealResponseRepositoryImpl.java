@@ -0,0 +1,67 @@
+package com.eatclub.deals.repository;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.eatclub.deals.dto.DealResponseDto;
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.entity.Restaurant;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+/**
+ * Criteria implementation of DealResponseRepository, picked up by Spring Data as a DealRepository fragment.
+ * Rows are selected as Object[] and mapped by DealResponseDto.fromColumns.
+ */
+public class DealResponseRepositoryImpl implements DealResponseRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DealResponseDto> findResponses(Specification<Deal> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Deal> deal = query.from(Deal.class);
+        Predicate where = spec.toPredicate(deal, query, cb);
+        Join<Deal, Restaurant> restaurant = DealSpecifications.restaurantOf(deal);
+
+        query.multiselect(restaurant.get("restaurantObjectId"),
+                          deal.get("restaurantNameDenormalized"),
+                          restaurant.get("restaurantAddress1"),
+                          restaurant.get("restarantSuburb"),
+                          restaurant.get("openTime"),
+                          restaurant.get("closeTime"),
+                          deal.get("dealObjectId"),
+                          deal.get("discount"),
+                          deal.get("dineIn"),
+                          deal.get("lightning"),
+                          deal.get("qtyLeft"));
+        if (where != null) {
+            query.where(where);
+        }
+        List<Object[]> rows = entityManager.createQuery(query).getResultList();
+        List<DealResponseDto> responses = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            responses.add(toResponse(row));
+        }
+        return responses;
+    }
+
+    private static DealResponseDto toResponse(Object[] row) {
+        return DealResponseDto.fromColumns((String) row[0], (String) row[1], (String) row[2], (String) row[3],
+                                           (LocalTime) row[4], (LocalTime) row[5], (String) row[6],
+                                           (Double) row[7], (Boolean) row[8], (Boolean) row[9], (Integer) row[10]);
+    }
+}
@@ -0,0 +1,184 @@
+package com.eatclub.deals.repository;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+
+import com.eatclub.deals.dto.DealFilter;
+import com.eatclub.deals.dto.DealSort;
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.entity.Restaurant;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+
+/**
+ * Criteria queries for the deal search, so filters and keyset paging run in the database.
+ */
+public final class DealSpecifications {
+
+    private DealSpecifications() {
+    }
+
+    /**
+     * Deals active at the given time that match the filter. When the query selects Deal entities
+     * their restaurant is fetched with them; otherwise, as for a projection, it is only joined.
+     * The time condition is the one of DealRepository.findActiveDealsAtTime.
+     *
+     * @param queryTime The time of day.
+     * @param filter The filter to apply.
+     * @param sort The order being paged, or null when not paging.
+     * @param afterKey The DealSort.keyOf value of the last deal of the previous page, or null for the first page.
+     * @param afterId The id of the last deal of the previous page, or null for the first page.
+     * @return The Specification.
+     */
+    public static Specification<Deal> search(LocalTime queryTime, DealFilter filter,
+                                             DealSort sort, Double afterKey, Long afterId) {
+        return (root, query, cb) -> {
+            Join<Deal, Restaurant> restaurant = Deal.class.equals(query.getResultType())
+                    ? fetchRestaurant(root)
+                    : restaurantOf(root);
+
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.greaterThan(root.<Integer>get("qtyLeft"), 0));
+            predicates.add(cb.isFalse(root.<Boolean>get("isDeleted")));
+            predicates.add(activeAt(root, cb, queryTime));
+
+            if (filter.getDineIn() != null) {
+                predicates.add(cb.equal(root.get("dineIn"), filter.getDineIn()));
+            }
+            if (filter.getLightning() != null) {
+                predicates.add(cb.equal(root.get("lightning"), filter.getLightning()));
+            }
+            if (filter.getMinDiscount() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.<Double>get("discount"), filter.getMinDiscount()));
+            }
+            if (filter.getSuburb() != null) {
+                predicates.add(cb.equal(cb.lower(restaurant.<String>get("restarantSuburb")), filter.getSuburb().toLowerCase(Locale.ENGLISH)));
+            }
+            List<String> cuisines = filter.normalizedCuisines();
+            if (!cuisines.isEmpty()) {
+                predicates.add(servesAnyCuisine(query, cb, restaurant, cuisines));
+            }
+            if (sort != null && afterKey != null && afterId != null) {
+                predicates.add(after(root, cb, sort, afterKey, afterId));
+            }
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * Returns the inner join from the deal to its restaurant, joining it on first use,
+     * so a projection can select restaurant columns from the join the filters use.
+     *
+     * @param root The Deal root of the query.
+     * @return The restaurant join.
+     */
+    @SuppressWarnings("unchecked")
+    public static Join<Deal, Restaurant> restaurantOf(Root<Deal> root) {
+        for (Join<Deal, ?> join : root.getJoins()) {
+            if ("restaurant".equals(join.getAttribute().getName())) {
+                return (Join<Deal, Restaurant>) join;
+            }
+        }
+        return root.join("restaurant", JoinType.INNER);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Join<Deal, Restaurant> fetchRestaurant(Root<Deal> root) {
+        return (Join<Deal, Restaurant>) root.<Deal, Restaurant>fetch("restaurant", JoinType.INNER);
+    }
+
+    /**
+     * Orders the query as DealSort.order orders deals in memory. It is a Specification rather
+     * than a Spring Data Sort because Spring Data cannot pass null precedence to a criteria
+     * query, and deals without a discount must come last on every database.
+     *
+     * @param sort The order of the rows.
+     * @return A Specification that only sets the order.
+     */
+    public static Specification<Deal> orderedBy(DealSort sort) {
+        return (root, query, cb) -> {
+            query.orderBy(orders(root, cb, sort));
+            return null;
+        };
+    }
+
+    private static List<Order> orders(Root<Deal> root, CriteriaBuilder cb, DealSort sort) {
+        Expression<Long> id = root.get("id");
+        switch (sort) {
+            case DISCOUNT -> {
+                return List.of(((HibernateCriteriaBuilder) cb).desc(root.get("discount"), false), cb.asc(id));
+            }
+            case QTY_LEFT -> {
+                return List.of(cb.asc(root.get("qtyLeft")), cb.asc(id));
+            }
+            default -> throw new IllegalArgumentException("Unsupported sort " + sort);
+        }
+    }
+
+    /**
+     * EXISTS over restaurant_cuisines, so a restaurant serving several of the cuisines
+     * does not repeat its deals.
+     */
+    private static Predicate servesAnyCuisine(CriteriaQuery<?> query, CriteriaBuilder cb,
+                                              Join<Deal, Restaurant> restaurant, List<String> cuisines) {
+        Subquery<Long> servingRestaurant = query.subquery(Long.class);
+        Root<Restaurant> serving = servingRestaurant.from(Restaurant.class);
+        Join<Restaurant, String> cuisine = serving.join("cuisines");
+        servingRestaurant.select(serving.<Long>get("id"))
+                         .where(cb.equal(serving.get("id"), restaurant.get("id")),
+                                cb.lower(cuisine).in(cuisines));
+        return cb.exists(servingRestaurant);
+    }
+
+    private static Predicate activeAt(Root<Deal> root, CriteriaBuilder cb, LocalTime queryTime) {
+        Expression<LocalTime> startTime = root.get("startTime");
+        Expression<LocalTime> endTime = root.get("endTime");
+        Predicate sameDay = cb.and(cb.lessThanOrEqualTo(startTime, endTime),
+                                   cb.lessThanOrEqualTo(startTime, queryTime),
+                                   cb.greaterThanOrEqualTo(endTime, queryTime));
+        Predicate wrapsPastMidnight = cb.and(cb.greaterThan(startTime, endTime),
+                                             cb.or(cb.lessThanOrEqualTo(startTime, queryTime),
+                                                   cb.greaterThanOrEqualTo(endTime, queryTime)));
+        return cb.or(sameDay, wrapsPastMidnight);
+    }
+
+    /**
+     * Keyset condition for the deals after the cursor in the sort order, written on the
+     * plain columns so the composite indexes can serve it.
+     */
+    private static Predicate after(Root<Deal> root, CriteriaBuilder cb, DealSort sort, double afterKey, long afterId) {
+        Expression<Long> id = root.get("id");
+        switch (sort) {
+            case DISCOUNT -> {
+                Expression<Double> discount = root.get("discount");
+                if (afterKey == Double.POSITIVE_INFINITY) {
+                    return cb.and(cb.isNull(discount), cb.greaterThan(id, afterId));
+                }
+                double afterDiscount = -afterKey;
+                return cb.or(cb.lessThan(discount, afterDiscount),
+                             cb.isNull(discount),
+                             cb.and(cb.equal(discount, afterDiscount), cb.greaterThan(id, afterId)));
+            }
+            case QTY_LEFT -> {
+                Expression<Integer> qtyLeft = root.get("qtyLeft");
+                int afterQtyLeft = (int) afterKey;
+                return cb.or(cb.greaterThan(qtyLeft, afterQtyLeft),
+                             cb.and(cb.equal(qtyLeft, afterQtyLeft), cb.greaterThan(id, afterId)));
+            }
+            default -> throw new IllegalArgumentException("Unsupported sort " + sort);
+        }
+    }
+}
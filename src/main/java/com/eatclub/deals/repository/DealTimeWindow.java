@@ -0,0 +1,20 @@
+package com.eatclub.deals.repository;
+
+import java.time.LocalTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Read-only projection of a deal's time window, selected without loading
+ * the Deal entity or its Restaurant.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DealTimeWindow {
+    private Long dealId;
+    private LocalTime startTime;
+    private LocalTime endTime;
+}
@@ -0,0 +1,20 @@
+package com.eatclub.deals.repository;
+
+import java.time.LocalTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of deals sharing the same time window, aggregated by the database.
+ * The row count depends on the number of distinct windows, not on the number of deals.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DealTimeWindowCount {
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private Long dealCount;
+}
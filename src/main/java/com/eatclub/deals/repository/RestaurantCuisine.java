@@ -0,0 +1,17 @@
+package com.eatclub.deals.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Read-only projection of one cuisine served by a restaurant, selected without
+ * loading the Restaurant entity.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RestaurantCuisine {
+    private Long restaurantId;
+    private String cuisine;
+}
@@ -1,8 +1,11 @@
 package com.eatclub.deals.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -17,4 +20,30 @@ public interface RestaurantRepository extends JpaRepository<com.eatclub.deals.en
      */
     Optional<com.eatclub.deals.entity.Restaurant> findByRestaurantObjectId(String restaurantObjectId);
 
+    /**
+     * Finds all Restaurants with one of the given restaurantObjectIds, including soft-deleted ones.
+     *
+     * @param restaurantObjectIds The unique IDs of the restaurants from the external data source.
+     * @return A list of the Restaurants found.
+     */
+    List<com.eatclub.deals.entity.Restaurant> findByRestaurantObjectIdIn(Collection<String> restaurantObjectIds);
+
+    /**
+     * Fetches the restaurantObjectId of every restaurant that is not soft-deleted.
+     *
+     * @return A list of restaurantObjectIds.
+     */
+    @Query("SELECT r.restaurantObjectId FROM Restaurant r WHERE r.isDeleted = FALSE")
+    List<String> findValidRestaurantObjectIds();
+
+    /**
+     * Fetches every cuisine of every restaurant, including soft-deleted ones, without
+     * loading Restaurant entities.
+     *
+     * @return A list of RestaurantCuisine projections.
+     */
+    @Query("SELECT new com.eatclub.deals.repository.RestaurantCuisine(r.id, c) " +
+           "FROM Restaurant r JOIN r.cuisines c")
+    List<RestaurantCuisine> findAllRestaurantCuisines();
+
 }
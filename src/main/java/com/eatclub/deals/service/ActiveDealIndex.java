@@ -0,0 +1,177 @@
+package com.eatclub.deals.service;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.entity.DealCatalogChangedEvent;
+import com.eatclub.deals.repository.DealRepository;
+import com.eatclub.deals.repository.RestaurantRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps the current DealTimeline in memory so active deals can be looked up
+ * without a database round trip.
+ *
+ * The timeline is built from the database at startup and rebuilt whenever a transaction
+ * that changed deals or restaurants commits. Readers always see a complete timeline:
+ * a rebuild swaps in a new instance and never touches the one being read.
+ *
+ * Rebuilds triggered by changes run on a background thread of their own, so the thread
+ * that committed, such as a claim request, returns without waiting for the catalogue to be
+ * read again; readers see the change once the rebuild swaps it in. Rebuilds are also
+ * coalesced: while one is waiting to start, further commits do not queue another, since the
+ * waiting rebuild will read them anyway. A burst of writes, such as many concurrent claims
+ * on a deal, costs one rebuild at a time rather than one per commit.
+ *
+ * No lock is held while a rebuild reads the database, so a slow read never blocks another
+ * rebuild or a first reader. Every read is numbered when it starts, and a finished timeline
+ * is only swapped in if no read that started later has been swapped in already: a read that
+ * started later has seen every commit the earlier one saw, so the newest catalogue wins.
+ */
+@Service
+public class ActiveDealIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ActiveDealIndex.class);
+
+    private final DealRepository dealRepository;
+    private final RestaurantRepository restaurantRepository;
+
+    private final AtomicReference<BuiltTimeline> timeline = new AtomicReference<>();
+    private final AtomicLong readsStarted = new AtomicLong();
+
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("active-deal-index-rebuild").daemon().factory());
+    private final TransactionTemplate rebuildTransaction;
+
+    public ActiveDealIndex(DealRepository dealRepository, RestaurantRepository restaurantRepository) {
+        this(dealRepository, restaurantRepository, null);
+    }
+
+    /**
+     * @param transactionManager Runs each background rebuild in one read-only transaction;
+     * without it, every repository call of a rebuild has its own.
+     */
+    @Autowired
+    public ActiveDealIndex(DealRepository dealRepository, RestaurantRepository restaurantRepository,
+                           PlatformTransactionManager transactionManager) {
+        this.dealRepository = dealRepository;
+        this.restaurantRepository = restaurantRepository;
+        if (transactionManager != null) {
+            this.rebuildTransaction = new TransactionTemplate(transactionManager);
+            this.rebuildTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            this.rebuildTransaction.setReadOnly(true);
+        } else {
+            this.rebuildTransaction = null;
+        }
+    }
+
+    /**
+     * Finds all active deals for a given time of day, with the same semantics as
+     * DealRepository.findActiveDealsAtTime, including deals that wrap past midnight.
+     *
+     * @param queryTime The LocalTime to check for active deals (e.g., 10:30, 15:00).
+     * @return An unmodifiable list of active deals.
+     */
+    public List<Deal> findActiveDealsAtTime(LocalTime queryTime) {
+        return current().activeAt(queryTime);
+    }
+
+    /**
+     * Returns the current timeline, loading it from the database on first use.
+     *
+     * @return The current DealTimeline.
+     */
+    public DealTimeline current() {
+        BuiltTimeline current = timeline.get();
+        if (current == null) {
+            return refresh();
+        }
+        return current.timeline;
+    }
+
+    /**
+     * Rebuilds the timeline from the database and swaps it in, unless a read that started
+     * later has already been swapped in. Cuisines are read as (restaurant id, cuisine) rows,
+     * so no restaurant's cuisine collection is loaded.
+     *
+     * @return The current DealTimeline: the new one, or the newer one that was kept.
+     */
+    public DealTimeline refresh() {
+        rebuildPending.set(false);
+        long read = readsStarted.incrementAndGet();
+        BuiltTimeline rebuilt = new BuiltTimeline(
+                DealTimeline.of(dealRepository.findAllValidDeals(),
+                                CuisineIndex.of(restaurantRepository.findAllRestaurantCuisines())),
+                read);
+        return timeline.accumulateAndGet(rebuilt, (current, candidate) ->
+                (current == null || current.read < candidate.read) ? candidate : current).timeline;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (timeline.get() == null) {
+            refresh();
+        }
+    }
+
+    /**
+     * Schedules a rebuild of the timeline after a catalogue change, unless a rebuild that has
+     * not started reading yet is already pending. The event is published after the original
+     * transaction committed; the rebuild runs on the rebuild thread in a transaction of its own.
+     *
+     * @param event The change event.
+     */
+    @EventListener
+    public void onCatalogChanged(DealCatalogChangedEvent event) {
+        if (rebuildPending.compareAndSet(false, true)) {
+            rebuildExecutor.execute(this::rebuild);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    private void rebuild() {
+        try {
+            if (rebuildTransaction != null) {
+                rebuildTransaction.executeWithoutResult(status -> refresh());
+            } else {
+                refresh();
+            }
+        } catch (RuntimeException e) {
+            // Keep serving the previous timeline; the next change schedules another rebuild.
+            rebuildPending.set(false);
+            log.warn("Rebuilding the active deal index failed", e);
+        }
+    }
+
+    private static final class BuiltTimeline {
+        final DealTimeline timeline;
+        final long read;
+
+        BuiltTimeline(DealTimeline timeline, long read) {
+            this.timeline = timeline;
+            this.read = read;
+        }
+    }
+}
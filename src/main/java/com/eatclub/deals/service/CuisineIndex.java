@@ -0,0 +1,110 @@
+package com.eatclub.deals.service;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.eatclub.deals.dto.DealFilter;
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.entity.Restaurant;
+import com.eatclub.deals.repository.RestaurantCuisine;
+
+/**
+ * Immutable inverted index from cuisine to the restaurants serving it.
+ *
+ * Every cuisine maps to a BitSet with one bit per restaurant id, so the restaurants serving
+ * any of several cuisines are the union of a few bitsets, and testing a deal against a cuisine
+ * filter is a single bit read on its restaurant id. Cuisine names are normalized with
+ * DealFilter.normalizeCuisine, so lookups ignore case and surrounding spaces.
+ */
+public final class CuisineIndex {
+
+    private static final CuisineIndex EMPTY = new CuisineIndex(Map.of());
+    private static final BitSet NO_RESTAURANTS = new BitSet();
+
+    private final Map<String, BitSet> restaurantsByCuisine;
+
+    private CuisineIndex(Map<String, BitSet> restaurantsByCuisine) {
+        this.restaurantsByCuisine = restaurantsByCuisine;
+    }
+
+    public static CuisineIndex empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds the index from cuisine rows read from the database.
+     *
+     * @param restaurantCuisines The cuisines of every restaurant.
+     * @return A new CuisineIndex.
+     */
+    public static CuisineIndex of(Collection<RestaurantCuisine> restaurantCuisines) {
+        Map<String, BitSet> restaurantsByCuisine = new HashMap<>();
+        for (RestaurantCuisine restaurantCuisine : restaurantCuisines) {
+            add(restaurantsByCuisine, restaurantCuisine.getCuisine(), restaurantCuisine.getRestaurantId());
+        }
+        return new CuisineIndex(restaurantsByCuisine);
+    }
+
+    /**
+     * Builds the index from the restaurants of the given deals. Reads each restaurant's
+     * cuisines collection, so it must already be loaded.
+     *
+     * @param deals The deals whose restaurants to index.
+     * @return A new CuisineIndex.
+     */
+    public static CuisineIndex ofRestaurantsOf(Collection<Deal> deals) {
+        Map<String, BitSet> restaurantsByCuisine = new HashMap<>();
+        for (Deal deal : deals) {
+            Restaurant restaurant = deal.getRestaurant();
+            if (restaurant == null || restaurant.getId() == null || restaurant.getCuisines() == null) {
+                continue;
+            }
+            for (String cuisine : restaurant.getCuisines()) {
+                add(restaurantsByCuisine, cuisine, restaurant.getId());
+            }
+        }
+        return new CuisineIndex(restaurantsByCuisine);
+    }
+
+    /**
+     * Returns the ids of the restaurants serving any of the given cuisines.
+     *
+     * @param cuisines Cuisine names, already normalized with DealFilter.normalizeCuisine.
+     * @return A BitSet of restaurant ids. Shared between callers, so it must not be modified.
+     */
+    public BitSet restaurantsServingAny(List<String> cuisines) {
+        BitSet union = null;
+        boolean shared = true;
+        for (String cuisine : cuisines) {
+            BitSet restaurants = restaurantsByCuisine.get(cuisine);
+            if (restaurants == null) {
+                continue;
+            }
+            if (union == null) {
+                union = restaurants;
+            } else {
+                if (shared) {
+                    union = (BitSet) union.clone();
+                    shared = false;
+                }
+                union.or(restaurants);
+            }
+        }
+        return (union == null) ? NO_RESTAURANTS : union;
+    }
+
+    public int getCuisineCount() {
+        return restaurantsByCuisine.size();
+    }
+
+    private static void add(Map<String, BitSet> restaurantsByCuisine, String cuisine, Long restaurantId) {
+        if (cuisine == null || restaurantId == null) {
+            return;
+        }
+        restaurantsByCuisine.computeIfAbsent(DealFilter.normalizeCuisine(cuisine), key -> new BitSet())
+                            .set(Math.toIntExact(restaurantId));
+    }
+}
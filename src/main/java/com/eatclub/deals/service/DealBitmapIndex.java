@@ -0,0 +1,269 @@
+package com.eatclub.deals.service;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.eatclub.deals.dto.DealFilter;
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.entity.Restaurant;
+
+/**
+ * Attribute bitmaps over the live deals of a DealTimeline.
+ *
+ * Every live deal has a dense ordinal, its position in the timeline, and every bitmap is a
+ * long[] with one bit per ordinal: dine-in deals, lightning deals, deals per suburb and, built
+ * on first use, deals per cuisine. A filter is compiled once into the bitmaps it needs, after
+ * which testing a deal is a few bit reads and collecting the matches of a segment is a
+ * word-by-word AND of the segment's bitmap with them. The discount is kept as a primitive
+ * array and compared on the deals left after the ANDs.
+ *
+ * Sold-out and soft-deleted deals never get an ordinal, so every ordinal has qtyLeft > 0
+ * and is not deleted.
+ */
+final class DealBitmapIndex {
+
+    private final Deal[] deals;
+    private final int wordCount;
+    private final long[] dineIn;
+    private final long[] lightning;
+    private final double[] discounts;
+    private final long[] restaurantIds;
+    private final Map<String, long[]> bySuburb;
+    private final CuisineIndex cuisineIndex;
+    private final ConcurrentMap<String, long[]> byCuisine = new ConcurrentHashMap<>();
+
+    private DealBitmapIndex(Deal[] deals, long[] dineIn, long[] lightning, double[] discounts, long[] restaurantIds,
+                            Map<String, long[]> bySuburb, CuisineIndex cuisineIndex) {
+        this.deals = deals;
+        this.wordCount = wordCount(deals.length);
+        this.dineIn = dineIn;
+        this.lightning = lightning;
+        this.discounts = discounts;
+        this.restaurantIds = restaurantIds;
+        this.bySuburb = bySuburb;
+        this.cuisineIndex = cuisineIndex;
+    }
+
+    /**
+     * @param deals The live deals, indexed by ordinal.
+     * @param cuisineIndex The cuisines of the deals' restaurants.
+     * @return A new DealBitmapIndex.
+     */
+    static DealBitmapIndex of(Deal[] deals, CuisineIndex cuisineIndex) {
+        int words = wordCount(deals.length);
+        long[] dineIn = new long[words];
+        long[] lightning = new long[words];
+        double[] discounts = new double[deals.length];
+        long[] restaurantIds = new long[deals.length];
+        Map<String, long[]> bySuburb = new HashMap<>();
+
+        for (int ordinal = 0; ordinal < deals.length; ordinal++) {
+            Deal deal = deals[ordinal];
+            if (Boolean.TRUE.equals(deal.getDineIn())) {
+                set(dineIn, ordinal);
+            }
+            if (Boolean.TRUE.equals(deal.getLightning())) {
+                set(lightning, ordinal);
+            }
+            discounts[ordinal] = (deal.getDiscount() != null) ? deal.getDiscount() : Double.NaN;
+
+            Restaurant restaurant = deal.getRestaurant();
+            restaurantIds[ordinal] = (restaurant != null && restaurant.getId() != null) ? restaurant.getId() : -1;
+            if (restaurant != null && restaurant.getRestarantSuburb() != null) {
+                set(bySuburb.computeIfAbsent(normalizeSuburb(restaurant.getRestarantSuburb()), key -> new long[words]), ordinal);
+            }
+        }
+        return new DealBitmapIndex(deals, dineIn, lightning, discounts, restaurantIds, bySuburb, cuisineIndex);
+    }
+
+    static int wordCount(int bits) {
+        return (bits + 63) >>> 6;
+    }
+
+    static void set(long[] words, int ordinal) {
+        words[ordinal >>> 6] |= 1L << ordinal;
+    }
+
+    /**
+     * Compiles the filter into the bitmaps it needs.
+     *
+     * @param filter The filter; must not be unfiltered.
+     * @return The Query.
+     */
+    Query compile(DealFilter filter) {
+        List<long[]> required = new ArrayList<>(3);
+        List<long[]> excluded = new ArrayList<>(2);
+        addFlag(filter.getDineIn(), dineIn, required, excluded);
+        addFlag(filter.getLightning(), lightning, required, excluded);
+
+        if (filter.getSuburb() != null) {
+            long[] suburb = bySuburb.get(normalizeSuburb(filter.getSuburb()));
+            if (suburb == null) {
+                return Query.NOTHING;
+            }
+            required.add(suburb);
+        }
+
+        long[][] anyCuisine = null;
+        if (filter.hasCuisines()) {
+            List<long[]> served = new ArrayList<>();
+            for (String cuisine : filter.normalizedCuisines()) {
+                long[] cuisineDeals = dealsServing(cuisine);
+                if (cuisineDeals != null) {
+                    served.add(cuisineDeals);
+                }
+            }
+            if (served.isEmpty()) {
+                return Query.NOTHING;
+            }
+            anyCuisine = served.toArray(long[][]::new);
+        }
+
+        double minDiscount = (filter.getMinDiscount() != null) ? filter.getMinDiscount() : Double.NaN;
+        return new Query(this, required.toArray(long[][]::new), excluded.toArray(long[][]::new), anyCuisine, minDiscount);
+    }
+
+    Deal dealAt(int ordinal) {
+        return deals[ordinal];
+    }
+
+    int getDealCount() {
+        return deals.length;
+    }
+
+    /**
+     * Bitmap of the deals of restaurants serving the cuisine, built from the CuisineIndex
+     * the first time the cuisine is asked for. Unknown cuisines are not cached.
+     */
+    private long[] dealsServing(String cuisine) {
+        return byCuisine.computeIfAbsent(cuisine, key -> {
+            BitSet restaurants = cuisineIndex.restaurantsServingAny(List.of(key));
+            if (restaurants.isEmpty()) {
+                return null;
+            }
+            long[] words = new long[wordCount];
+            for (int ordinal = 0; ordinal < restaurantIds.length; ordinal++) {
+                long restaurantId = restaurantIds[ordinal];
+                if (restaurantId >= 0 && restaurants.get(Math.toIntExact(restaurantId))) {
+                    set(words, ordinal);
+                }
+            }
+            return words;
+        });
+    }
+
+    private static void addFlag(Boolean wanted, long[] flag, List<long[]> required, List<long[]> excluded) {
+        if (wanted != null) {
+            (wanted ? required : excluded).add(flag);
+        }
+    }
+
+    private static String normalizeSuburb(String suburb) {
+        return suburb.toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * A filter compiled against one DealBitmapIndex.
+     */
+    static final class Query {
+
+        static final Query NOTHING = new Query(null, new long[0][], new long[0][], null, Double.NaN);
+
+        private final DealBitmapIndex index;
+        private final long[][] required;
+        private final long[][] excluded;
+        private final long[][] anyCuisine;
+        private final double minDiscount;
+
+        private Query(DealBitmapIndex index, long[][] required, long[][] excluded, long[][] anyCuisine, double minDiscount) {
+            this.index = index;
+            this.required = required;
+            this.excluded = excluded;
+            this.anyCuisine = anyCuisine;
+            this.minDiscount = minDiscount;
+        }
+
+        /**
+         * @return true if no deal can match, e.g. the suburb or every cuisine is unknown.
+         */
+        boolean matchesNothing() {
+            return index == null;
+        }
+
+        /**
+         * @param ordinal The ordinal of a live deal.
+         * @return true if the deal meets every criterion of the filter.
+         */
+        boolean matches(int ordinal) {
+            if (index == null) {
+                return false;
+            }
+            int word = ordinal >>> 6;
+            long bit = 1L << ordinal;
+            for (long[] mask : required) {
+                if ((mask[word] & bit) == 0) {
+                    return false;
+                }
+            }
+            for (long[] mask : excluded) {
+                if ((mask[word] & bit) != 0) {
+                    return false;
+                }
+            }
+            if (anyCuisine != null) {
+                long served = 0;
+                for (long[] mask : anyCuisine) {
+                    served |= mask[word];
+                }
+                if ((served & bit) == 0) {
+                    return false;
+                }
+            }
+            return Double.isNaN(minDiscount) || index.discounts[ordinal] >= minDiscount;
+        }
+
+        /**
+         * Adds the matching deals among the candidates to the list, in ordinal order.
+         *
+         * @param candidates A bitmap of ordinals, such as the deals active in a segment.
+         * @param matches The list to add to.
+         */
+        void collect(long[] candidates, List<Deal> matches) {
+            if (index == null) {
+                return;
+            }
+            for (int w = 0; w < candidates.length; w++) {
+                long word = candidates[w];
+                if (word == 0) {
+                    continue;
+                }
+                for (long[] mask : required) {
+                    word &= mask[w];
+                }
+                for (long[] mask : excluded) {
+                    word &= ~mask[w];
+                }
+                if (anyCuisine != null) {
+                    long served = 0;
+                    for (long[] mask : anyCuisine) {
+                        served |= mask[w];
+                    }
+                    word &= served;
+                }
+                while (word != 0) {
+                    int ordinal = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if (Double.isNaN(minDiscount) || index.discounts[ordinal] >= minDiscount) {
+                        matches.add(index.deals[ordinal]);
+                    }
+                }
+            }
+        }
+    }
+}
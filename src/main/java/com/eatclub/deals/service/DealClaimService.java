@@ -0,0 +1,85 @@
+package com.eatclub.deals.service;
+
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.entity.DealCatalogChangeListener;
+import com.eatclub.deals.exception.DealNotFoundException;
+import com.eatclub.deals.exception.DealSoldOutException;
+import com.eatclub.deals.model.DealClaimResponse;
+import com.eatclub.deals.repository.DealRepository;
+
+/**
+ * Claims deals one unit at a time.
+ *
+ * A claim is one conditional UPDATE that decrements qtyLeft only while it is positive,
+ * followed by a read of the remaining quantity, in one short transaction. There is no
+ * read-modify-write in the application and no lock is taken before the UPDATE, so concurrent
+ * claims on the same deal are serialized by the database for the length of that statement
+ * only and can never take more units than there are.
+ *
+ * With deals.claim.source set to memory, claims are confirmed by the DealInventory instead
+ * and written to the database in batches. That mode is only exact while a single instance
+ * serves claims. Only the database path runs in a transaction, so a claim confirmed in
+ * memory never takes a connection from the pool.
+ */
+@Service
+public class DealClaimService {
+
+    public enum ClaimSource {
+        DATABASE,
+        MEMORY
+    }
+
+    private final DealRepository dealRepository;
+    private final DealCatalogChangeListener dealCatalogChangeListener;
+    private final DealInventory dealInventory;
+    private final TransactionTemplate claimTransaction;
+
+    @Value("${deals.claim.source:database}")
+    private ClaimSource source = ClaimSource.DATABASE;
+
+    public DealClaimService(DealRepository dealRepository, DealCatalogChangeListener dealCatalogChangeListener,
+                            DealInventory dealInventory, PlatformTransactionManager transactionManager) {
+        this.dealRepository = dealRepository;
+        this.dealCatalogChangeListener = dealCatalogChangeListener;
+        this.dealInventory = dealInventory;
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Takes one unit of the deal.
+     *
+     * @param dealObjectId The unique ID of the deal from the external data source.
+     * @return The deal's remaining quantity after the claim.
+     * @throws DealNotFoundException if no live deal has this dealObjectId.
+     * @throws DealSoldOutException if the deal has no units left.
+     */
+    public DealClaimResponse claim(String dealObjectId) {
+        if (source == ClaimSource.MEMORY) {
+            return dealInventory.claim(dealObjectId);
+        }
+        return claimTransaction.execute(status -> claimFromDatabase(dealObjectId));
+    }
+
+    private DealClaimResponse claimFromDatabase(String dealObjectId) {
+        if (dealRepository.decrementQtyLeft(dealObjectId, Instant.now()) == 0) {
+            Deal deal = dealRepository.findByDealObjectId(dealObjectId)
+                                      .filter(found -> !Boolean.TRUE.equals(found.getIsDeleted()))
+                                      .orElseThrow(() -> new DealNotFoundException(
+                                              String.format("No deal with id '%s' was found.", dealObjectId)));
+            throw new DealSoldOutException(
+                    String.format("The deal '%s' is sold out.", deal.getDealObjectId()));
+        }
+
+        Deal claimed = dealRepository.findByDealObjectId(dealObjectId)
+                                     .orElseThrow(() -> new IllegalStateException("Claimed deal " + dealObjectId + " vanished"));
+        dealCatalogChangeListener.onBulkUpdate(claimed);
+        return new DealClaimResponse(claimed.getDealObjectId(), claimed.getQtyLeft());
+    }
+}
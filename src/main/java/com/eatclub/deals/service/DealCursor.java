@@ -0,0 +1,92 @@
+package com.eatclub.deals.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.eatclub.deals.dto.DealSort;
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.exception.InvalidInputException;
+
+/**
+ * Position of a deal in one of the DealSort orders. A cursor holds the sort key and id
+ * of the last deal of a page, so the next page starts right after it even if deals were
+ * added or removed in between.
+ *
+ * Cursors are handed to clients as opaque URL-safe strings.
+ */
+public final class DealCursor {
+
+    private final DealSort sort;
+    private final double key;
+    private final long id;
+
+    private DealCursor(DealSort sort, double key, long id) {
+        this.sort = sort;
+        this.key = key;
+        this.id = id;
+    }
+
+    /**
+     * @param sort The order being paged.
+     * @param deal The last deal of a page.
+     * @return The cursor positioned right after the deal.
+     */
+    public static DealCursor after(DealSort sort, Deal deal) {
+        return new DealCursor(sort, sort.keyOf(deal), deal.getId());
+    }
+
+    /**
+     * Decodes a cursor returned by encode.
+     *
+     * @param cursor The encoded cursor.
+     * @param sort The order being paged; the cursor must have been taken in the same order.
+     * @return The DealCursor.
+     * @throws InvalidInputException if the cursor is malformed or belongs to another order.
+     */
+    public static DealCursor decode(String cursor, DealSort sort) {
+        DealCursor decoded;
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Expected 3 parts but found " + parts.length);
+            }
+            decoded = new DealCursor(DealSort.valueOf(parts[0]), Double.parseDouble(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidInputException(String.format("The 'after' parameter is not a valid cursor: '%s'.", cursor), e);
+        }
+        if (decoded.sort != sort) {
+            throw new InvalidInputException(String.format(
+                    "The 'after' cursor was returned for sort '%s' and cannot be used with sort '%s'.",
+                    decoded.sort.getParameterValue(), sort.getParameterValue()));
+        }
+        return decoded;
+    }
+
+    public String encode() {
+        String value = sort.name() + ":" + key + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public DealSort getSort() {
+        return sort;
+    }
+
+    /**
+     * @return The sort key of the deal the cursor was taken from, as returned by DealSort.keyOf.
+     */
+    public double getKey() {
+        return key;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * @return true if the deal comes after this cursor in the cursor's order.
+     */
+    public boolean precedes(Deal deal) {
+        int byKey = Double.compare(key, sort.keyOf(deal));
+        return byKey < 0 || (byKey == 0 && id < deal.getId());
+    }
+}
@@ -0,0 +1,312 @@
+package com.eatclub.deals.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.eatclub.deals.dto.DealFeedDto;
+import com.eatclub.deals.dto.RestaurantFeedDto;
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.entity.Restaurant;
+import com.eatclub.deals.exception.InvalidInputException;
+import com.eatclub.deals.model.FeedIngestionResponse;
+import com.eatclub.deals.repository.DealRepository;
+import com.eatclub.deals.repository.RestaurantRepository;
+import com.eatclub.deals.util.DealFeedReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Brings the stored restaurants and deals in line with a complete restaurant/deal feed.
+ *
+ * The feed is streamed in batches of restaurants. For every batch the stored rows are looked
+ * up by restaurantObjectId and dealObjectId with one query each, and only what differs is
+ * written: new rows are inserted, rows with changed values are updated, and unchanged rows are
+ * left alone. Once the whole feed has been read, stored rows missing from it are soft-deleted.
+ * Re-ingesting an unchanged feed therefore writes nothing.
+ *
+ * A restaurant or deal whose objectId appears more than once in the feed is stored once:
+ * the first occurrence is counted like any other row, and every later one is applied on top
+ * of it and counted as updated or unchanged, so the last occurrence wins.
+ *
+ * Because missing rows are deleted, a feed without restaurants is rejected, and so is a feed
+ * that would soft-delete more than deals.feed.max-delete-share of the stored restaurants or
+ * deals, as a cut-off or partial feed would. Either way the whole ingest is rolled back.
+ *
+ * A deal's qtyLeft in the feed is taken as its stock: the units already claimed through this
+ * service (Deal.qtyClaimed) are subtracted from it, so posting the same feed again after
+ * claims does not make claimed units available a second time.
+ */
+@Service
+public class DealFeedIngestionService {
+
+    public static final double DEFAULT_MAX_DELETE_SHARE = 0.5;
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("h:mma", Locale.ENGLISH);
+
+    private final RestaurantRepository restaurantRepository;
+    private final DealRepository dealRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    @Value("${deals.feed.max-delete-share:" + DEFAULT_MAX_DELETE_SHARE + "}")
+    private double maxDeleteShare = DEFAULT_MAX_DELETE_SHARE;
+
+    public DealFeedIngestionService(RestaurantRepository restaurantRepository,
+                                    DealRepository dealRepository,
+                                    EntityManager entityManager,
+                                    ObjectMapper objectMapper,
+                                    @Value("${deals.loader.batch-size:500}") int batchSize) {
+        this.restaurantRepository = restaurantRepository;
+        this.dealRepository = dealRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Ingests a complete feed.
+     *
+     * @param feed The feed as JSON with a top-level "restaurants" array.
+     * @return The number of restaurants and deals inserted, updated, unchanged and soft-deleted.
+     * @throws InvalidInputException if the feed cannot be read, contains invalid values, has no
+     * restaurants, or would soft-delete more than the allowed share of the catalogue.
+     */
+    @Transactional
+    public FeedIngestionResponse ingest(InputStream feed) {
+        IngestionCounts counts = new IngestionCounts();
+        Set<String> seenRestaurantObjectIds = new HashSet<>();
+        Set<String> seenDealObjectIds = new HashSet<>();
+
+        try (DealFeedReader reader = new DealFeedReader(objectMapper, feed)) {
+            List<RestaurantFeedDto> batch;
+            while (!(batch = reader.nextBatch(batchSize)).isEmpty()) {
+                ingestBatch(batch, seenRestaurantObjectIds, seenDealObjectIds, counts);
+                flushBatch();
+            }
+        } catch (IOException e) {
+            throw new InvalidInputException("The deal feed could not be read: " + e.getMessage(), e);
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new InvalidInputException("The deal feed contains an invalid value: " + e.getMessage(), e);
+        }
+
+        if (seenRestaurantObjectIds.isEmpty()) {
+            throw new InvalidInputException("The deal feed contains no restaurants; an empty feed would delete the whole catalogue.");
+        }
+
+        List<String> missingDeals = missing(dealRepository.findValidDealObjectIds(), seenDealObjectIds, "deals");
+        List<String> missingRestaurants = missing(restaurantRepository.findValidRestaurantObjectIds(),
+                                                  seenRestaurantObjectIds, "restaurants");
+        softDeleteMissingDeals(missingDeals, counts);
+        softDeleteMissingRestaurants(missingRestaurants, counts);
+
+        return counts.toResponse();
+    }
+
+    /**
+     * Returns the stored objectIds missing from the feed, refusing to go on if they are more
+     * than the allowed share of the stored rows.
+     */
+    private List<String> missing(List<String> storedObjectIds, Set<String> seenObjectIds, String kind) {
+        List<String> missing = storedObjectIds.stream()
+                                              .filter(objectId -> !seenObjectIds.contains(objectId))
+                                              .collect(Collectors.toList());
+        if (missing.size() > maxDeleteShare * storedObjectIds.size()) {
+            throw new InvalidInputException(String.format(
+                    "The deal feed is missing %d of the %d stored %s, more than the %.0f%% that may be deleted at once.",
+                    missing.size(), storedObjectIds.size(), kind, maxDeleteShare * 100));
+        }
+        return missing;
+    }
+
+    private void ingestBatch(List<RestaurantFeedDto> batch, Set<String> seenRestaurantObjectIds,
+                             Set<String> seenDealObjectIds, IngestionCounts counts) {
+        List<String> restaurantObjectIds = new ArrayList<>(batch.size());
+        List<String> dealObjectIds = new ArrayList<>();
+        for (RestaurantFeedDto restaurantFeed : batch) {
+            restaurantObjectIds.add(restaurantFeed.getObjectId());
+            if (restaurantFeed.getDeals() != null) {
+                restaurantFeed.getDeals().forEach(dealFeed -> dealObjectIds.add(dealFeed.getObjectId()));
+            }
+        }
+
+        Map<String, Restaurant> storedRestaurants = restaurantRepository.findByRestaurantObjectIdIn(restaurantObjectIds)
+                .stream()
+                .collect(Collectors.toMap(Restaurant::getRestaurantObjectId, Function.identity()));
+        Map<String, Deal> storedDeals = dealObjectIds.isEmpty() ? new HashMap<>() : dealRepository.findByDealObjectIdIn(dealObjectIds)
+                .stream()
+                .collect(Collectors.toMap(Deal::getDealObjectId, Function.identity()));
+
+        for (RestaurantFeedDto restaurantFeed : batch) {
+            seenRestaurantObjectIds.add(restaurantFeed.getObjectId());
+
+            Restaurant restaurant = storedRestaurants.get(restaurantFeed.getObjectId());
+            if (restaurant == null) {
+                restaurant = new Restaurant();
+                applyRestaurant(restaurantFeed, restaurant);
+                restaurant = restaurantRepository.save(restaurant);
+                storedRestaurants.put(restaurant.getRestaurantObjectId(), restaurant);
+                counts.restaurantsInserted++;
+            } else if (applyRestaurant(restaurantFeed, restaurant)) {
+                counts.restaurantsUpdated++;
+            } else {
+                counts.restaurantsUnchanged++;
+            }
+
+            if (restaurantFeed.getDeals() == null) {
+                continue;
+            }
+            for (DealFeedDto dealFeed : restaurantFeed.getDeals()) {
+                seenDealObjectIds.add(dealFeed.getObjectId());
+
+                Deal deal = storedDeals.get(dealFeed.getObjectId());
+                if (deal == null) {
+                    deal = new Deal();
+                    applyDeal(dealFeed, restaurantFeed, restaurant, deal);
+                    dealRepository.save(deal);
+                    storedDeals.put(deal.getDealObjectId(), deal);
+                    counts.dealsInserted++;
+                } else if (applyDeal(dealFeed, restaurantFeed, restaurant, deal)) {
+                    counts.dealsUpdated++;
+                } else {
+                    counts.dealsUnchanged++;
+                }
+            }
+        }
+    }
+
+    private void softDeleteMissingDeals(List<String> missing, IngestionCounts counts) {
+        for (int from = 0; from < missing.size(); from += batchSize) {
+            List<String> chunk = missing.subList(from, Math.min(from + batchSize, missing.size()));
+            for (Deal deal : dealRepository.findByDealObjectIdIn(chunk)) {
+                deal.setIsDeleted(true);
+                counts.dealsDeleted++;
+            }
+            flushBatch();
+        }
+    }
+
+    private void softDeleteMissingRestaurants(List<String> missing, IngestionCounts counts) {
+        for (int from = 0; from < missing.size(); from += batchSize) {
+            List<String> chunk = missing.subList(from, Math.min(from + batchSize, missing.size()));
+            for (Restaurant restaurant : restaurantRepository.findByRestaurantObjectIdIn(chunk)) {
+                restaurant.setIsDeleted(true);
+                counts.restaurantsDeleted++;
+            }
+            flushBatch();
+        }
+    }
+
+    /**
+     * Copies the feed values onto the restaurant, touching only the fields that differ.
+     *
+     * @return true if any field changed.
+     */
+    private boolean applyRestaurant(RestaurantFeedDto source, Restaurant target) {
+        List<String> cuisines = (source.getCuisines() != null)
+                                ? source.getCuisines().stream()
+                                        .map(String::trim)
+                                        .filter(cuisine -> !cuisine.isEmpty())
+                                        .distinct()
+                                        .collect(Collectors.toCollection(ArrayList::new))
+                                : new ArrayList<>();
+
+        boolean changed = false;
+        changed |= update(target.getRestaurantObjectId(), source.getObjectId(), target::setRestaurantObjectId);
+        changed |= update(target.getRestaurantName(), source.getName(), target::setRestaurantName);
+        changed |= update(target.getRestaurantAddress1(), source.getAddress1(), target::setRestaurantAddress1);
+        changed |= update(target.getRestarantSuburb(), source.getSuburb(), target::setRestarantSuburb);
+        if (update(target.getCuisines(), cuisines, target::setCuisines)) {
+            // Cuisines live in their own table, so changing only them would not update the
+            // restaurant row nor publish a catalogue change; touching it does both.
+            target.setUpdatedAt(Instant.now());
+            changed = true;
+        }
+        changed |= update(target.getImageLink(), source.getImageLink(), target::setImageLink);
+        changed |= update(target.getOpenTime(), parseTime(source.getOpen()), target::setOpenTime);
+        changed |= update(target.getCloseTime(), parseTime(source.getClose()), target::setCloseTime);
+        changed |= update(target.getIsDeleted(), Boolean.FALSE, target::setIsDeleted);
+        return changed;
+    }
+
+    /**
+     * Copies the feed values onto the deal, touching only the fields that differ.
+     *
+     * @return true if any field changed.
+     */
+    private boolean applyDeal(DealFeedDto source, RestaurantFeedDto restaurantSource, Restaurant restaurant, Deal target) {
+        String start = (source.getStart() != null) ? source.getStart() : restaurantSource.getOpen();
+        String end = (source.getEnd() != null) ? source.getEnd() : restaurantSource.getClose();
+
+        boolean changed = false;
+        changed |= update(target.getDealObjectId(), source.getObjectId(), target::setDealObjectId);
+        if (target.getRestaurant() == null || !Objects.equals(target.getRestaurant().getId(), restaurant.getId())) {
+            target.setRestaurant(restaurant);
+            changed = true;
+        }
+        changed |= update(target.getRestaurantNameDenormalized(), restaurant.getRestaurantName(), target::setRestaurantNameDenormalized);
+        changed |= update(target.getDiscount(), Double.parseDouble(source.getDiscount()), target::setDiscount);
+        changed |= update(target.getDineIn(), Boolean.parseBoolean(source.getDineIn()), target::setDineIn);
+        changed |= update(target.getLightning(), Boolean.parseBoolean(source.getLightning()), target::setLightning);
+        // The feed's quantity is the deal's stock; units already claimed here stay claimed.
+        int claimed = (target.getQtyClaimed() != null) ? target.getQtyClaimed() : 0;
+        changed |= update(target.getQtyLeft(), Math.max(Integer.parseInt(source.getQtyLeft()) - claimed, 0), target::setQtyLeft);
+        changed |= update(target.getStartTime(), parseTime(start), target::setStartTime);
+        changed |= update(target.getEndTime(), parseTime(end), target::setEndTime);
+        changed |= update(target.getIsDeleted(), Boolean.FALSE, target::setIsDeleted);
+        return changed;
+    }
+
+    private static <T> boolean update(T current, T incoming, Consumer<T> setter) {
+        if (Objects.equals(current, incoming)) {
+            return false;
+        }
+        setter.accept(incoming);
+        return true;
+    }
+
+    private LocalTime parseTime(String time) {
+        return LocalTime.parse(time.toUpperCase(Locale.ENGLISH), TIME_FORMATTER);
+    }
+
+    private void flushBatch() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private static class IngestionCounts {
+        int restaurantsInserted;
+        int restaurantsUpdated;
+        int restaurantsUnchanged;
+        int restaurantsDeleted;
+        int dealsInserted;
+        int dealsUpdated;
+        int dealsUnchanged;
+        int dealsDeleted;
+
+        FeedIngestionResponse toResponse() {
+            return new FeedIngestionResponse(restaurantsInserted, restaurantsUpdated, restaurantsUnchanged, restaurantsDeleted,
+                                             dealsInserted, dealsUpdated, dealsUnchanged, dealsDeleted);
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.eatclub.deals.service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.entity.DealCatalogChangeListener;
+import com.eatclub.deals.entity.DealCatalogChangedEvent;
+import com.eatclub.deals.exception.DealNotFoundException;
+import com.eatclub.deals.exception.DealSoldOutException;
+import com.eatclub.deals.model.DealClaimResponse;
+import com.eatclub.deals.repository.DealRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Confirms deal claims from in-memory stock and writes the units taken back to the
+ * database in batches (used when deals.claim.source is memory).
+ *
+ * The first claim on a deal loads its qtyLeft into a StripedStock; from then on a claim is
+ * a compare-and-set on one stripe and never touches the database, so a hot deal no longer
+ * serializes its claims on one row. Every deals.inventory.flush-interval-ms the units taken
+ * since the last write are subtracted from each deal's row in one transaction, which also
+ * publishes the usual DealCatalogChangedEvent, so cached /v1/deals responses show the new
+ * quantities, and sold-out deals disappear, within one flush interval plus a timeline rebuild.
+ *
+ * Writes and evictions are serialized on one lock; claims never take it. It is a
+ * ReentrantLock rather than a monitor because writes hold it across their transaction, which
+ * would pin a virtual thread to its carrier. Loads read the deal without the lock and only
+ * take it to install the stock, starting over if a write committed or a change event arrived
+ * meanwhile, so a slow read never holds up claims on other deals. When another
+ * transaction changes a held deal (a feed ingestion, say), its stock is retired: claims in
+ * flight on it are awaited, its remaining units taken are written, and the next claim loads
+ * the deal again from the database. Pending units are also written on shutdown, so a restart
+ * resumes from the exact quantity. A crash loses at most one flush interval of confirmed
+ * claims, and the stock is only exact while a single instance serves claims for a deal.
+ */
+@Service
+public class DealInventory {
+
+    public static final int DEFAULT_STRIPES = 16;
+    public static final long DEFAULT_FLUSH_INTERVAL_MS = 200;
+
+    private final DealRepository dealRepository;
+    private final DealCatalogChangeListener dealCatalogChangeListener;
+    private final TransactionTemplate writeTransaction;
+
+    private final ConcurrentMap<String, HeldStock> stocks = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final AtomicLong catalogChanges = new AtomicLong();
+    private boolean writing;
+
+    @Value("${deals.inventory.stripes:" + DEFAULT_STRIPES + "}")
+    private int stripeCount = DEFAULT_STRIPES;
+
+    public DealInventory(DealRepository dealRepository, DealCatalogChangeListener dealCatalogChangeListener,
+                         PlatformTransactionManager transactionManager) {
+        this.dealRepository = dealRepository;
+        this.dealCatalogChangeListener = dealCatalogChangeListener;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Takes one unit of the deal from memory, loading its stock on first use.
+     *
+     * @param dealObjectId The unique ID of the deal from the external data source.
+     * @return The deal's remaining quantity after the claim.
+     * @throws DealNotFoundException if no live deal has this dealObjectId.
+     * @throws DealSoldOutException if the deal has no units left.
+     */
+    public DealClaimResponse claim(String dealObjectId) {
+        while (true) {
+            HeldStock held = stocks.get(dealObjectId);
+            if (held == null || held.retired) {
+                held = load(dealObjectId);
+            }
+            switch (held.tryClaim()) {
+                case CLAIMED:
+                    return new DealClaimResponse(dealObjectId, held.units.remaining());
+                case SOLD_OUT:
+                    throw new DealSoldOutException(String.format("The deal '%s' is sold out.", dealObjectId));
+                default:
+                    // Retired while we were claiming: load it again.
+            }
+        }
+    }
+
+    /**
+     * Writes the units taken from every held stock since the last write.
+     * Runs on a schedule and once more on shutdown.
+     */
+    @Scheduled(fixedDelayString = "${deals.inventory.flush-interval-ms:" + DEFAULT_FLUSH_INTERVAL_MS + "}")
+    @PreDestroy
+    public void flush() {
+        if (stocks.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            write(stocks.values());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retires the stock of every held deal that another transaction changed, or of every
+     * held deal on a full reload. Events caused by this inventory's own writes are ignored.
+     *
+     * @param event The change event.
+     */
+    @EventListener
+    public void onCatalogChanged(DealCatalogChangedEvent event) {
+        catalogChanges.incrementAndGet();
+        if (stocks.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            if (writing) {
+                return;
+            }
+            Set<Long> changedDealIds = new HashSet<>();
+            event.getDealChanges().forEach(change -> changedDealIds.add(change.getDealId()));
+            for (Map.Entry<String, HeldStock> entry : new ArrayList<>(stocks.entrySet())) {
+                if (event.isFullReload() || changedDealIds.contains(entry.getValue().dealId)) {
+                    retire(entry.getKey(), entry.getValue());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of deals whose stock is held in memory.
+     */
+    public int getHeldDealCount() {
+        return stocks.size();
+    }
+
+    /**
+     * Reads the deal without the lock, then installs its stock unless another load got there
+     * first. A read that overlapped a committed write or a change event may have seen the row
+     * before it, so it is read again.
+     */
+    private HeldStock load(String dealObjectId) {
+        while (true) {
+            long changesBeforeRead = catalogChanges.get();
+            Deal deal = dealRepository.findByDealObjectId(dealObjectId)
+                                      .filter(found -> !Boolean.TRUE.equals(found.getIsDeleted()))
+                                      .orElseThrow(() -> new DealNotFoundException(
+                                              String.format("No deal with id '%s' was found.", dealObjectId)));
+            lock.lock();
+            try {
+                HeldStock held = stocks.get(dealObjectId);
+                if (held != null) {
+                    return held;
+                }
+                if (catalogChanges.get() == changesBeforeRead) {
+                    held = new HeldStock(deal.getId(), deal.getQtyLeft(), stripeCount);
+                    stocks.put(dealObjectId, held);
+                    return held;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Stops claims on the stock, writes what was taken from it and drops it. Called with the lock held,
+     * so no load can read the deal's row before the write.
+     */
+    private void retire(String dealObjectId, HeldStock held) {
+        held.retired = true;
+        while (held.claimsInFlight.sum() != 0) {
+            Thread.onSpinWait();
+        }
+        write(List.of(held));
+        stocks.remove(dealObjectId, held);
+    }
+
+    /**
+     * Subtracts the units taken since the last write in one transaction and records the
+     * updated deals, so the change event is published after the commit. Called with the lock held.
+     */
+    private void write(Collection<HeldStock> held) {
+        Map<HeldStock, Integer> taken = new LinkedHashMap<>();
+        for (HeldStock stock : held) {
+            int unwritten = stock.unwritten();
+            if (unwritten > 0) {
+                taken.put(stock, unwritten);
+            }
+        }
+        if (taken.isEmpty()) {
+            return;
+        }
+
+        writing = true;
+        try {
+            writeTransaction.executeWithoutResult(status -> {
+                // Registered before the change listener's synchronization, so it runs first on commit.
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        taken.forEach((stock, units) -> stock.written += units);
+                        catalogChanges.incrementAndGet();
+                    }
+                });
+                Instant now = Instant.now();
+                List<Long> dealIds = new ArrayList<>(taken.size());
+                taken.forEach((stock, units) -> {
+                    dealRepository.decrementQtyLeftBy(stock.dealId, units, now);
+                    dealIds.add(stock.dealId);
+                });
+                dealRepository.findAllById(dealIds).forEach(dealCatalogChangeListener::onBulkUpdate);
+            });
+        } finally {
+            writing = false;
+        }
+    }
+
+    private enum ClaimOutcome {
+        CLAIMED,
+        SOLD_OUT,
+        RETIRED
+    }
+
+    /**
+     * The in-memory stock of one deal. written is only accessed with the inventory lock held.
+     */
+    private static final class HeldStock {
+        final long dealId;
+        final int loadedUnits;
+        final StripedStock units;
+        final LongAdder claimsInFlight = new LongAdder();
+        volatile boolean retired;
+        int written;
+
+        HeldStock(long dealId, int loadedUnits, int stripeCount) {
+            this.dealId = dealId;
+            this.loadedUnits = Math.max(loadedUnits, 0);
+            this.units = new StripedStock(this.loadedUnits, stripeCount);
+        }
+
+        /**
+         * Claims are counted in flight before checking retired, and retire sets retired before
+         * waiting for the count to drain, so no claim can land on a stock after its last write.
+         */
+        ClaimOutcome tryClaim() {
+            claimsInFlight.increment();
+            try {
+                if (retired) {
+                    return ClaimOutcome.RETIRED;
+                }
+                return units.tryTake() ? ClaimOutcome.CLAIMED : ClaimOutcome.SOLD_OUT;
+            } finally {
+                claimsInFlight.decrement();
+            }
+        }
+
+        int unwritten() {
+            return loadedUnits - units.remaining() - written;
+        }
+    }
+}
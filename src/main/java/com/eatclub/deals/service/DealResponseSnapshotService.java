@@ -0,0 +1,227 @@
+package com.eatclub.deals.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import com.eatclub.deals.dto.DealResponseDto;
+import com.eatclub.deals.dto.DealWireFormat;
+import com.eatclub.deals.entity.Deal;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Serves the /v1/deals response body as pre-serialized JSON bytes.
+ *
+ * Every minute inside a DealTimeline segment returns the same deals, so the body is
+ * serialized once per segment and reused until the timeline is replaced. The segment is
+ * found from the list of active deals itself, a DealTimeline.Segment, so callers need no
+ * more than ActiveDealIndex.findActiveDealsAtTime. Snapshots are
+ * bound to the timeline instance they were built from: any change to a deal's quantity,
+ * time window or deleted flag rebuilds the timeline, and with it every snapshot at once.
+ *
+ * Deals are written one at a time through a JsonGenerator, so no list of DTOs is built.
+ * Segments holding more than deals.response.snapshot-max-deals deals are not kept as
+ * snapshots at all: they are streamed straight to the response on every request, which
+ * keeps both the cache and the memory used per request bounded however many deals are active.
+ *
+ * Bodies can be encoded in any DealWireFormat. Every format has its own ObjectMapper, a copy
+ * of the application's with a Smile or CBOR factory, and its own snapshots.
+ */
+@Service
+public class DealResponseSnapshotService {
+
+    public static final int DEFAULT_SNAPSHOT_MAX_DEALS = 10_000;
+
+    private static final int FORMAT_COUNT = DealWireFormat.values().length;
+
+    private final Map<DealWireFormat, ObjectMapper> objectMappers = new EnumMap<>(DealWireFormat.class);
+    private final Map<DealWireFormat, ObjectWriter> dealWriters = new EnumMap<>(DealWireFormat.class);
+
+    private volatile SnapshotSet snapshotSet;
+
+    @Value("${deals.response.snapshot-max-deals:" + DEFAULT_SNAPSHOT_MAX_DEALS + "}")
+    private int snapshotMaxDeals = DEFAULT_SNAPSHOT_MAX_DEALS;
+
+    public DealResponseSnapshotService(ObjectMapper objectMapper) {
+        objectMappers.put(DealWireFormat.JSON, objectMapper);
+        objectMappers.put(DealWireFormat.SMILE, objectMapper.copyWith(new SmileFactory()));
+        objectMappers.put(DealWireFormat.CBOR, objectMapper.copyWith(new CBORFactory()));
+        objectMappers.forEach((format, mapper) -> dealWriters.put(format, mapper.writerFor(DealResponseDto.class)
+                                                                                 .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)));
+    }
+
+    /**
+     * Tells whether the given active deals are served from a snapshot.
+     * If not, they should be streamed with writeDeals.
+     *
+     * @param deals The deals active at some time.
+     * @return true if snapshotOf may be used for the deals.
+     */
+    public boolean isSnapshotted(List<Deal> deals) {
+        return deals.size() <= snapshotMaxDeals;
+    }
+
+    /**
+     * Returns the serialized list of deals active at the given time.
+     * Meant for segments where isSnapshotted is true; larger ones would be cached as well.
+     *
+     * @param timeline The timeline to read from.
+     * @param queryTime The time of day.
+     * @return The DealsSnapshot for the segment containing queryTime.
+     */
+    public DealsSnapshot snapshotAt(DealTimeline timeline, LocalTime queryTime) {
+        return snapshotAt(timeline, queryTime, DealWireFormat.JSON);
+    }
+
+    /**
+     * Returns the list of deals active at the given time, encoded in the given format.
+     *
+     * @param timeline The timeline to read from.
+     * @param queryTime The time of day.
+     * @param format The encoding of the body.
+     * @return The DealsSnapshot for the segment containing queryTime.
+     */
+    public DealsSnapshot snapshotAt(DealTimeline timeline, LocalTime queryTime, DealWireFormat format) {
+        return snapshotAt(timeline, timeline.segmentAt(queryTime), format);
+    }
+
+    private DealsSnapshot snapshotAt(DealTimeline timeline, int segment, DealWireFormat format) {
+        SnapshotSet current = snapshotSet;
+        if (current == null || current.timeline != timeline) {
+            current = new SnapshotSet(timeline);
+            snapshotSet = current;
+        }
+
+        int slot = segment * FORMAT_COUNT + format.ordinal();
+        DealsSnapshot snapshot = current.segments.get(slot);
+        if (snapshot == null) {
+            snapshot = render(timeline.getSegmentDeals(segment), format);
+            if (!current.segments.compareAndSet(slot, null, snapshot)) {
+                snapshot = current.segments.get(slot);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Serializes the given deals in the given format. A DealTimeline.Segment, as returned by
+     * ActiveDealIndex.findActiveDealsAtTime, is served from the snapshot of its segment. Any other
+     * list, such as one page of a paged search, is not cached: every call renders it again.
+     *
+     * @param deals The deals to serialize.
+     * @param format The encoding of the body.
+     * @return A DealsSnapshot holding the body and its ETag.
+     */
+    public DealsSnapshot snapshotOf(List<Deal> deals, DealWireFormat format) {
+        if (deals instanceof DealTimeline.Segment segment) {
+            return snapshotAt(segment.getTimeline(), segment.getIndex(), format);
+        }
+        return render(deals, format);
+    }
+
+    /**
+     * Writes the deals as a JSON array of DealResponseDto, one deal at a time.
+     * The output stream is flushed but not closed.
+     *
+     * @param deals The deals to write.
+     * @param out The stream to write to.
+     * @throws IOException if writing to the stream fails.
+     */
+    public void writeDeals(List<Deal> deals, OutputStream out) throws IOException {
+        writeDeals(deals, DealWireFormat.JSON, out);
+    }
+
+    /**
+     * Writes the deals as an array of DealResponseDto in the given format, one deal at a time.
+     * The output stream is flushed but not closed.
+     *
+     * @param deals The deals to write.
+     * @param format The encoding of the body.
+     * @param out The stream to write to.
+     * @throws IOException if writing to the stream fails.
+     */
+    public void writeDeals(List<Deal> deals, DealWireFormat format, OutputStream out) throws IOException {
+        writeResponses(DealResponseDto.fromEntities(deals), format, out);
+    }
+
+    /**
+     * Writes response rows that are already mapped, such as a DealRepository projection,
+     * as an array in the given format, one row at a time. The output stream is flushed but not closed.
+     *
+     * @param responses The rows to write.
+     * @param format The encoding of the body.
+     * @param out The stream to write to.
+     * @throws IOException if writing to the stream fails.
+     */
+    public void writeResponses(List<DealResponseDto> responses, DealWireFormat format, OutputStream out) throws IOException {
+        ObjectWriter dealWriter = dealWriters.get(format);
+        try (JsonGenerator generator = objectMappers.get(format).createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            for (DealResponseDto response : responses) {
+                dealWriter.writeValue(generator, response);
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    private DealsSnapshot render(List<Deal> deals, DealWireFormat format) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            writeDeals(deals, format, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not serialize " + deals.size() + " deals", e);
+        }
+        byte[] body = out.toByteArray();
+        return new DealsSnapshot(body, "\"" + DigestUtils.md5DigestAsHex(body) + "\"");
+    }
+
+    private static class SnapshotSet {
+        final DealTimeline timeline;
+        final AtomicReferenceArray<DealsSnapshot> segments;
+
+        SnapshotSet(DealTimeline timeline) {
+            this.timeline = timeline;
+            this.segments = new AtomicReferenceArray<>(timeline.getSegmentCount() * FORMAT_COUNT);
+        }
+    }
+
+    public static class DealsSnapshot {
+        private final byte[] body;
+        private final String etag;
+
+        public DealsSnapshot(byte[] body, String etag) {
+            this.body = body;
+            this.etag = etag;
+        }
+
+        /**
+         * @return The serialized body. Shared between requests, so it must not be modified.
+         */
+        public byte[] getBody() {
+            return body;
+        }
+
+        /**
+         * @return A strong ETag derived from the body, already quoted.
+         */
+        public String getEtag() {
+            return etag;
+        }
+    }
+}
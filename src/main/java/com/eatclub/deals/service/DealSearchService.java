@@ -0,0 +1,90 @@
+package com.eatclub.deals.service;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+
+import com.eatclub.deals.dto.DealFilter;
+import com.eatclub.deals.dto.DealResponseDto;
+import com.eatclub.deals.dto.DealSort;
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.repository.DealRepository;
+import com.eatclub.deals.repository.DealSpecifications;
+
+/**
+ * Filtered, sorted and paged searches over the active deals.
+ *
+ * Searches run in one of two places, chosen with deals.search.source: memory (the default)
+ * filters the segment of the ActiveDealIndex timeline, database pushes the filters, the
+ * sort and the keyset condition of the cursor down into a DealRepository query served by
+ * the composite indexes on deals and restaurants. Both return the same deals in the same order.
+ * Pages fetch restaurants with the deals, so results can be mapped outside a transaction;
+ * full searches are answered by the database source with a projection instead of entities.
+ */
+@Service
+public class DealSearchService {
+
+    public enum DealSearchSource {
+        MEMORY,
+        DATABASE
+    }
+
+    private final ActiveDealIndex activeDealIndex;
+    private final DealRepository dealRepository;
+
+    @Value("${deals.search.source:memory}")
+    private DealSearchSource source = DealSearchSource.MEMORY;
+
+    public DealSearchService(ActiveDealIndex activeDealIndex, DealRepository dealRepository) {
+        this.activeDealIndex = activeDealIndex;
+        this.dealRepository = dealRepository;
+    }
+
+    /**
+     * Finds all active deals matching the filter, as response rows. The database source selects
+     * the rows directly in a read-only query; the memory source maps each deal as it is read.
+     *
+     * @param queryTime The time of day.
+     * @param filter The filter to apply.
+     * @param sort The order of the result, or null for no particular order.
+     * @return The matching deals as DealResponseDto.
+     */
+    public List<DealResponseDto> searchResponses(LocalTime queryTime, DealFilter filter, DealSort sort) {
+        if (source == DealSearchSource.DATABASE) {
+            Specification<Deal> search = DealSpecifications.search(queryTime, filter, null, null, null);
+            return dealRepository.findResponses((sort != null) ? search.and(DealSpecifications.orderedBy(sort)) : search);
+        }
+        return DealResponseDto.fromEntities(activeDealIndex.current().searchAt(queryTime, filter, sort));
+    }
+
+    /**
+     * Finds one page of the active deals matching the filter.
+     *
+     * @param queryTime The time of day.
+     * @param filter The filter to apply.
+     * @param sort The order to page in.
+     * @param after The cursor of the previous page, or null for the first page.
+     * @param limit The maximum number of deals on the page; must be positive.
+     * @return The DealPage.
+     */
+    public DealTimeline.DealPage page(LocalTime queryTime, DealFilter filter, DealSort sort, DealCursor after, int limit) {
+        if (source != DealSearchSource.DATABASE) {
+            return activeDealIndex.current().pageAt(queryTime, filter, sort, after, limit);
+        }
+
+        List<Deal> deals = dealRepository.findBy(
+                DealSpecifications.search(queryTime, filter, sort,
+                                          (after != null) ? after.getKey() : null,
+                                          (after != null) ? after.getId() : null)
+                                  .and(DealSpecifications.orderedBy(sort)),
+                query -> query.limit(limit + 1).all());
+        if (deals.size() <= limit) {
+            return new DealTimeline.DealPage(deals, null);
+        }
+        List<Deal> page = deals.subList(0, limit);
+        return new DealTimeline.DealPage(page, DealCursor.after(sort, page.get(limit - 1)));
+    }
+}
@@ -0,0 +1,461 @@
+package com.eatclub.deals.service;
+
+import java.time.LocalTime;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.eatclub.deals.dto.DealFilter;
+import com.eatclub.deals.dto.DealSort;
+import com.eatclub.deals.entity.Deal;
+
+/**
+ * Immutable minute-of-day index over a set of deals.
+ *
+ * The day is cut into segments at every minute where some deal starts or stops being
+ * active, so every minute inside a segment has exactly the same set of active deals.
+ * A lookup is then two array reads (minute to segment, segment to deals) and returns a
+ * precomputed list, whatever the size of the catalogue.
+ *
+ * A deal is active from its start minute up to and including its end minute. A deal
+ * whose end is before its start wraps past midnight and is active on both sides of it.
+ *
+ * Every live deal also has a dense ordinal, and every segment keeps a bitmap of the
+ * ordinals active in it. Filters are evaluated on those bitmaps by a DealBitmapIndex:
+ * a filtered search ANDs the segment's bitmap with the dine-in, lightning, suburb and
+ * cuisine bitmaps a word at a time, without testing deals one by one.
+ *
+ * Sorted searches read the segment's ordinals sorted in the DealSort order, made the first
+ * time the segment is searched in that order, so a page starting at a cursor is found by
+ * binary search instead of skipping rows.
+ */
+public final class DealTimeline {
+
+    public static final int DAY_MINUTES = 24 * 60;
+
+    private static final DealTimeline EMPTY = of(Collections.emptyList());
+
+    private final int[] segmentOfMinute;
+    private final int[] segmentStartMinutes;
+    private final List<Segment> segmentDeals;
+    private final long[][] segmentOrdinals;
+    private final DealBitmapIndex bitmaps;
+    private final Map<DealSort, AtomicReference<Ranking>> rankings;
+    private final Map<DealSort, AtomicReferenceArray<RankedSegment>> rankedSegments;
+
+    private DealTimeline(int[] segmentOfMinute, int[] segmentStartMinutes, Deal[][] segmentMembers,
+                         long[][] segmentOrdinals, DealBitmapIndex bitmaps) {
+        this.segmentOfMinute = segmentOfMinute;
+        this.segmentStartMinutes = segmentStartMinutes;
+        List<Segment> segments = new ArrayList<>(segmentMembers.length);
+        for (int s = 0; s < segmentMembers.length; s++) {
+            segments.add(new Segment(this, s, segmentMembers[s]));
+        }
+        this.segmentDeals = Collections.unmodifiableList(segments);
+        this.segmentOrdinals = segmentOrdinals;
+        this.bitmaps = bitmaps;
+        this.rankings = new EnumMap<>(DealSort.class);
+        this.rankedSegments = new EnumMap<>(DealSort.class);
+        for (DealSort sort : DealSort.values()) {
+            rankings.put(sort, new AtomicReference<>());
+            rankedSegments.put(sort, new AtomicReferenceArray<>(segmentStartMinutes.length));
+        }
+    }
+
+    public static DealTimeline empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds the timeline from the given deals, indexing the cuisines of their restaurants.
+     * The restaurants' cuisines must already be loaded.
+     *
+     * @param deals The deals to index.
+     * @return A new DealTimeline.
+     */
+    public static DealTimeline of(List<Deal> deals) {
+        return of(deals, CuisineIndex.ofRestaurantsOf(deals));
+    }
+
+    /**
+     * Builds the timeline from the given deals. Deals that are soft-deleted, sold out
+     * or missing a time window are left out, matching DealRepository.findActiveDealsAtTime.
+     * The order of the input is kept inside every segment.
+     *
+     * @param deals The deals to index.
+     * @param cuisineIndex The cuisines of the deals' restaurants.
+     * @return A new DealTimeline.
+     */
+    public static DealTimeline of(List<Deal> deals, CuisineIndex cuisineIndex) {
+        List<Deal> liveDeals = new ArrayList<>(deals.size());
+        boolean[] changePoints = new boolean[DAY_MINUTES];
+        changePoints[0] = true;
+
+        for (Deal deal : deals) {
+            if (!isLive(deal)) {
+                continue;
+            }
+            liveDeals.add(deal);
+            int startMinute = minuteOfDay(deal.getStartTime());
+            int endMinute = minuteOfDay(deal.getEndTime());
+            changePoints[startMinute] = true;
+            if (endMinute + 1 < DAY_MINUTES) {
+                changePoints[endMinute + 1] = true;
+            }
+        }
+
+        int[] segmentOfMinute = new int[DAY_MINUTES];
+        int[] segmentStarts = new int[DAY_MINUTES];
+        int segment = -1;
+        for (int minute = 0; minute < DAY_MINUTES; minute++) {
+            if (changePoints[minute]) {
+                segment++;
+                segmentStarts[segment] = minute;
+            }
+            segmentOfMinute[minute] = segment;
+        }
+        int segmentCount = segment + 1;
+
+        int[] segmentSizes = new int[segmentCount];
+        for (Deal deal : liveDeals) {
+            forEachSegment(deal, segmentOfMinute, segmentCount, s -> segmentSizes[s]++);
+        }
+
+        Deal[][] members = new Deal[segmentCount][];
+        for (int s = 0; s < segmentCount; s++) {
+            members[s] = new Deal[segmentSizes[s]];
+        }
+        long[][] segmentOrdinals = new long[segmentCount][DealBitmapIndex.wordCount(liveDeals.size())];
+        int[] fill = new int[segmentCount];
+        for (int ordinal = 0; ordinal < liveDeals.size(); ordinal++) {
+            Deal deal = liveDeals.get(ordinal);
+            int dealOrdinal = ordinal;
+            forEachSegment(deal, segmentOfMinute, segmentCount, s -> {
+                members[s][fill[s]++] = deal;
+                DealBitmapIndex.set(segmentOrdinals[s], dealOrdinal);
+            });
+        }
+
+        return new DealTimeline(segmentOfMinute, Arrays.copyOf(segmentStarts, segmentCount), members, segmentOrdinals,
+                                DealBitmapIndex.of(liveDeals.toArray(new Deal[0]), cuisineIndex));
+    }
+
+    /**
+     * Returns the deals active at the given time of day.
+     *
+     * @param time The time of day; seconds are ignored.
+     * @return An unmodifiable list of active deals, which is the Segment containing the time.
+     */
+    public List<Deal> activeAt(LocalTime time) {
+        return segmentDeals.get(segmentAt(time));
+    }
+
+    /**
+     * Returns the deals active at the given time of day that match the filter.
+     *
+     * @param time The time of day; seconds are ignored.
+     * @param filter The filter to apply.
+     * @param sort The order of the result, or null to keep the order of activeAt.
+     * @return An unmodifiable list of matching deals.
+     */
+    public List<Deal> searchAt(LocalTime time, DealFilter filter, DealSort sort) {
+        int segment = segmentAt(time);
+        if (filter.isUnfiltered()) {
+            return (sort == null) ? segmentDeals.get(segment) : rankedSegment(segment, sort).deals;
+        }
+        DealBitmapIndex.Query query = bitmaps.compile(filter);
+        if (query.matchesNothing()) {
+            return List.of();
+        }
+
+        List<Deal> matches = new ArrayList<>();
+        if (sort == null) {
+            query.collect(segmentOrdinals[segment], matches);
+        } else {
+            for (int ordinal : rankedSegment(segment, sort).ordinals) {
+                if (query.matches(ordinal)) {
+                    matches.add(bitmaps.dealAt(ordinal));
+                }
+            }
+        }
+        return Collections.unmodifiableList(matches);
+    }
+
+    /**
+     * Returns one page of the deals active at the given time of day that match the filter.
+     *
+     * @param time The time of day; seconds are ignored.
+     * @param filter The filter to apply.
+     * @param sort The order to page in.
+     * @param after The cursor of the previous page, or null for the first page.
+     * @param limit The maximum number of deals on the page; must be positive.
+     * @return The DealPage.
+     */
+    public DealPage pageAt(LocalTime time, DealFilter filter, DealSort sort, DealCursor after, int limit) {
+        int[] ranked = rankedSegment(segmentAt(time), sort).ordinals;
+        int from = (after == null) ? 0 : firstAfter(ranked, after);
+        DealBitmapIndex.Query query = filter.isUnfiltered() ? null : bitmaps.compile(filter);
+        if (query != null && query.matchesNothing()) {
+            return new DealPage(List.of(), null);
+        }
+
+        List<Deal> deals = new ArrayList<>(Math.min(limit, ranked.length - from));
+        for (int i = from; i < ranked.length; i++) {
+            if (query != null && !query.matches(ranked[i])) {
+                continue;
+            }
+            if (deals.size() == limit) {
+                return new DealPage(Collections.unmodifiableList(deals), DealCursor.after(sort, deals.get(limit - 1)));
+            }
+            deals.add(bitmaps.dealAt(ranked[i]));
+        }
+        return new DealPage(Collections.unmodifiableList(deals), null);
+    }
+
+    /**
+     * Returns the index of the segment containing the given time of day.
+     * Two times with the same segment index always have the same active deals.
+     *
+     * @param time The time of day; seconds are ignored.
+     * @return The segment index.
+     */
+    public int segmentAt(LocalTime time) {
+        return segmentOfMinute[minuteOfDay(time)];
+    }
+
+    public int getSegmentCount() {
+        return segmentStartMinutes.length;
+    }
+
+    public int getSegmentStartMinute(int segment) {
+        return segmentStartMinutes[segment];
+    }
+
+    public List<Deal> getSegmentDeals(int segment) {
+        return segmentDeals.get(segment);
+    }
+
+    public int getDealCount() {
+        return bitmaps.getDealCount();
+    }
+
+    /**
+     * Returns the ordinals of the deals active in the segment, ascending. An ordinal is the
+     * position of a live deal in the timeline, so it names the same deal in every segment.
+     *
+     * @param segment The segment index.
+     * @return A new array of ordinals; getDeal maps each back to its deal.
+     */
+    public int[] getSegmentOrdinals(int segment) {
+        long[] words = segmentOrdinals[segment];
+        int[] ordinals = new int[segmentDeals.get(segment).size()];
+        int count = 0;
+        for (int w = 0; w < words.length; w++) {
+            for (long word = words[w]; word != 0; word &= word - 1) {
+                ordinals[count++] = (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+        }
+        return ordinals;
+    }
+
+    public Deal getDeal(int ordinal) {
+        return bitmaps.dealAt(ordinal);
+    }
+
+    /**
+     * Returns the segment's ordinals (and deals) in the sort order. The ordinals of the whole
+     * timeline are ranked once per sort; a segment then only sorts the ranks of its own deals,
+     * as plain ints.
+     */
+    private RankedSegment rankedSegment(int segment, DealSort sort) {
+        AtomicReferenceArray<RankedSegment> ranked = rankedSegments.get(sort);
+        RankedSegment rankedSegment = ranked.get(segment);
+        if (rankedSegment == null) {
+            Ranking ranking = ranking(sort);
+            int[] ordinals = new int[segmentDeals.get(segment).size()];
+            long[] words = segmentOrdinals[segment];
+            int count = 0;
+            for (int w = 0; w < words.length; w++) {
+                for (long word = words[w]; word != 0; word &= word - 1) {
+                    ordinals[count++] = ranking.rankOfOrdinal[(w << 6) + Long.numberOfTrailingZeros(word)];
+                }
+            }
+            Arrays.sort(ordinals);
+            Deal[] deals = new Deal[ordinals.length];
+            for (int i = 0; i < ordinals.length; i++) {
+                ordinals[i] = ranking.ordinalAtRank[ordinals[i]];
+                deals[i] = bitmaps.dealAt(ordinals[i]);
+            }
+
+            rankedSegment = new RankedSegment(ordinals, Collections.unmodifiableList(Arrays.asList(deals)));
+            if (!ranked.compareAndSet(segment, null, rankedSegment)) {
+                rankedSegment = ranked.get(segment);
+            }
+        }
+        return rankedSegment;
+    }
+
+    private Ranking ranking(DealSort sort) {
+        AtomicReference<Ranking> cached = rankings.get(sort);
+        Ranking ranking = cached.get();
+        if (ranking == null) {
+            Integer[] ordinals = new Integer[getDealCount()];
+            for (int ordinal = 0; ordinal < ordinals.length; ordinal++) {
+                ordinals[ordinal] = ordinal;
+            }
+            Comparator<Deal> order = sort.order();
+            Arrays.sort(ordinals, (a, b) -> order.compare(bitmaps.dealAt(a), bitmaps.dealAt(b)));
+            ranking = new Ranking(Arrays.stream(ordinals).mapToInt(Integer::intValue).toArray());
+            if (!cached.compareAndSet(null, ranking)) {
+                ranking = cached.get();
+            }
+        }
+        return ranking;
+    }
+
+    /**
+     * Binary search for the first deal after the cursor.
+     */
+    private int firstAfter(int[] ranked, DealCursor after) {
+        int low = 0;
+        int high = ranked.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (after.precedes(bitmaps.dealAt(ranked[mid]))) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    static int minuteOfDay(LocalTime time) {
+        return time.toSecondOfDay() / 60;
+    }
+
+    private static boolean isLive(Deal deal) {
+        return !Boolean.TRUE.equals(deal.getIsDeleted())
+                && deal.getQtyLeft() != null && deal.getQtyLeft() > 0
+                && deal.getStartTime() != null && deal.getEndTime() != null;
+    }
+
+    private static void forEachSegment(Deal deal, int[] segmentOfMinute, int segmentCount, SegmentConsumer consumer) {
+        int startSegment = segmentOfMinute[minuteOfDay(deal.getStartTime())];
+        int endSegment = segmentOfMinute[minuteOfDay(deal.getEndTime())];
+
+        if (minuteOfDay(deal.getStartTime()) <= minuteOfDay(deal.getEndTime())) {
+            for (int s = startSegment; s <= endSegment; s++) {
+                consumer.accept(s);
+            }
+        } else {
+            for (int s = startSegment; s < segmentCount; s++) {
+                consumer.accept(s);
+            }
+            for (int s = 0; s <= endSegment; s++) {
+                consumer.accept(s);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface SegmentConsumer {
+        void accept(int segment);
+    }
+
+    /**
+     * Every ordinal of the timeline in one sort order, and the inverse mapping.
+     */
+    private static final class Ranking {
+        final int[] ordinalAtRank;
+        final int[] rankOfOrdinal;
+
+        Ranking(int[] ordinalAtRank) {
+            this.ordinalAtRank = ordinalAtRank;
+            this.rankOfOrdinal = new int[ordinalAtRank.length];
+            for (int rank = 0; rank < ordinalAtRank.length; rank++) {
+                rankOfOrdinal[ordinalAtRank[rank]] = rank;
+            }
+        }
+    }
+
+    /**
+     * The ordinals of one segment in a sort order, with the matching deals.
+     */
+    private static final class RankedSegment {
+        final int[] ordinals;
+        final List<Deal> deals;
+
+        RankedSegment(int[] ordinals, List<Deal> deals) {
+            this.ordinals = ordinals;
+            this.deals = deals;
+        }
+    }
+
+    /**
+     * The unmodifiable list of deals active in one segment. It knows its timeline and index,
+     * so a caller given only the list, e.g. by ActiveDealIndex.findActiveDealsAtTime, can still
+     * look up what is cached per segment, such as the DealResponseSnapshotService snapshots.
+     */
+    public static final class Segment extends AbstractList<Deal> implements RandomAccess {
+        private final DealTimeline timeline;
+        private final int index;
+        private final Deal[] deals;
+
+        private Segment(DealTimeline timeline, int index, Deal[] deals) {
+            this.timeline = timeline;
+            this.index = index;
+            this.deals = deals;
+        }
+
+        @Override
+        public Deal get(int i) {
+            return deals[i];
+        }
+
+        @Override
+        public int size() {
+            return deals.length;
+        }
+
+        public DealTimeline getTimeline() {
+            return timeline;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+    }
+
+    public static class DealPage {
+        private final List<Deal> deals;
+        private final DealCursor next;
+
+        public DealPage(List<Deal> deals, DealCursor next) {
+            this.deals = deals;
+            this.next = next;
+        }
+
+        /**
+         * @return The deals on this page, unmodifiable.
+         */
+        public List<Deal> getDeals() {
+            return deals;
+        }
+
+        /**
+         * @return The cursor of the next page, or null if this is the last page.
+         */
+        public DealCursor getNext() {
+            return next;
+        }
+    }
+}
@@ -2,135 +2,320 @@ package com.eatclub.deals.service;
 
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
-import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.entity.DealCatalogChangedEvent;
+import com.eatclub.deals.exception.InvalidInputException;
 import com.eatclub.deals.repository.DealRepository;
+import com.eatclub.deals.repository.DealTimeWindow;
+import com.eatclub.deals.repository.DealTimeWindowCount;
 
+/**
+ * Calculates the window of the day in which the most deals are available.
+ *
+ * Deal windows are kept as start and end events bucketed by minute of day, which keeps
+ * them sorted at no cost. A peak-time read sweeps the 1440 event buckets once into slot
+ * counts, so its cost does not depend on the number of deals nor on the slot granularity.
+ *
+ * The buckets are filled in one of two ways, chosen with deals.peak-time.source:
+ * memory (the default) reads every deal window once and then patches the buckets from
+ * each committed deal write; database lets the database count deals per distinct window
+ * and re-runs that aggregation after writes, so heap use stays flat however large the
+ * catalogue grows.
+ *
+ * Reads and patches are guarded by one ReentrantLock, which is never held across a database
+ * query: a read that finds the buckets unseeded releases it, fills fresh buckets, and installs
+ * them only if no deal write committed meanwhile. Otherwise it answers from its own buckets
+ * once and leaves the seeding to the next read.
+ */
 @Service
 public class PeakTimeCalculatorService {
 
+    public static final int DEFAULT_GRANULARITY_MINUTES = 30;
+
+    public enum PeakTimeSource {
+        MEMORY,
+        DATABASE
+    }
+
     private final DealRepository dealRepository;
-    private static final int INTERVAL_GRANULARITY_MINUTES = 30;
     private static final int DAY_MINUTES = 24 * 60;
-    private static final int NUMBER_OF_SLOTS = DAY_MINUTES / INTERVAL_GRANULARITY_MINUTES;
+
+    private EventBuckets buckets;
+    private long catalogChanges;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Value("${deals.peak-time.source:memory}")
+    private PeakTimeSource source = PeakTimeSource.MEMORY;
 
     public PeakTimeCalculatorService(DealRepository dealRepository) {
         this.dealRepository = dealRepository;
     }
 
     public PeakTimeWindow calculatePeakTimeWindow() {
-        List<Deal> allDeals = dealRepository.findAllValidDeals();
+        return calculatePeakTimeWindow(DEFAULT_GRANULARITY_MINUTES);
+    }
 
-        if (allDeals == null || allDeals.isEmpty()) {
-            return new PeakTimeWindow(null, null);
+    /**
+     * Finds the earliest longest run of slots holding the maximum number of deals.
+     * A deal counts towards every slot its window overlaps.
+     *
+     * @param granularityMinutes The slot length in minutes; must divide a day evenly (e.g. 1, 5, 15, 30, 60).
+     * @return The peak window, or a window with null times if no deals are available.
+     * @throws InvalidInputException if the granularity does not divide a day evenly.
+     */
+    public PeakTimeWindow calculatePeakTimeWindow(int granularityMinutes) {
+        lock.lock();
+        try {
+            List<PeakTimeWindow> busiestWindows = findBusiestWindows(slotCounts(granularityMinutes), granularityMinutes, 1);
+            return busiestWindows.isEmpty() ? new PeakTimeWindow(null, null) : busiestWindows.get(0);
+        } finally {
+            lock.unlock();
         }
+    }
 
-        List<Integer> slotDealCounts = new ArrayList<>(NUMBER_OF_SLOTS);
-        for (int i = 0; i < NUMBER_OF_SLOTS; i++) {
-            slotDealCounts.add(0);
+    /**
+     * Returns the number of deals in every slot of the day together with the busiest windows.
+     * A window is a run of consecutive slots with the same non-zero deal count, so windows never
+     * overlap. They are ranked by deal count, then by length, then by start time; the first one
+     * is the window returned by calculatePeakTimeWindow.
+     *
+     * @param granularityMinutes The slot length in minutes; must divide a day evenly.
+     * @param topWindows The number of busiest windows to return; 0 for none.
+     * @return The PeakTimeHistogram.
+     * @throws InvalidInputException if the granularity or the number of windows is invalid.
+     */
+    public PeakTimeHistogram calculateHistogram(int granularityMinutes, int topWindows) {
+        if (topWindows < 0) {
+            throw new InvalidInputException(String.format(
+                    "The 'top' parameter cannot be negative, but was %d.", topWindows));
         }
+        lock.lock();
+        try {
+            int[] slotDealCounts = slotCounts(granularityMinutes);
+            List<PeakTimeWindow> busiestWindows = findBusiestWindows(slotDealCounts, granularityMinutes, topWindows);
+            return new PeakTimeHistogram(granularityMinutes, slotDealCounts.clone(), busiestWindows);
+        } finally {
+            lock.unlock();
+        }
+    }
 
-        populateDealCountsInSlots(allDeals, slotDealCounts);
+    /**
+     * Returns the slot counts for a granularity, sweeping the event buckets only
+     * if they changed since the last read at that granularity. Called with the lock held;
+     * the lock is released while unseeded buckets are read from the database.
+     */
+    private int[] slotCounts(int granularityMinutes) {
+        if (granularityMinutes <= 0 || DAY_MINUTES % granularityMinutes != 0) {
+            throw new InvalidInputException(String.format(
+                    "The 'granularity' parameter must be a number of minutes that divides a day evenly, but was %d.",
+                    granularityMinutes));
+        }
+        EventBuckets current = buckets;
+        if (current == null) {
+            long changesBeforeRead = catalogChanges;
+            EventBuckets seeded;
+            lock.unlock();
+            try {
+                seeded = seed();
+            } finally {
+                lock.lock();
+            }
+            if (buckets == null && catalogChanges == changesBeforeRead) {
+                buckets = seeded;
+            }
+            current = (buckets != null) ? buckets : seeded;
+        }
+        return current.slotCounts(granularityMinutes);
+    }
 
-        int maximumActiveDeals = findMaxDealCount(slotDealCounts);
+    /**
+     * Applies the deal writes of a committed transaction to the event buckets.
+     * Until the counts have been seeded there is nothing to patch; a full reload, or any
+     * write when the database is the source, drops them so they are seeded again on the next read.
+     *
+     * @param event The change event.
+     */
+    @EventListener
+    public void onCatalogChanged(DealCatalogChangedEvent event) {
+        lock.lock();
+        try {
+            catalogChanges++;
+            if (buckets == null) {
+                return;
+            }
+            buckets.slotCountsByGranularity.clear();
+            if (event.isFullReload() || source == PeakTimeSource.DATABASE) {
+                buckets = null;
+                return;
+            }
+            for (DealCatalogChangedEvent.DealChange change : event.getDealChanges()) {
+                DealWindow previous = buckets.dealWindows.remove(change.getDealId());
+                if (previous != null) {
+                    buckets.applyWindow(previous, -1);
+                }
+                if (change.isLive() && change.getStartTime() != null && change.getEndTime() != null) {
+                    DealWindow current = new DealWindow(change.getStartTime(), change.getEndTime());
+                    buckets.dealWindows.put(change.getDealId(), current);
+                    buckets.applyWindow(current, 1);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
 
-        if (maximumActiveDeals <= 0) {
-            return new PeakTimeWindow(null, null);
+    /**
+     * Reads fresh event buckets from the database. Called without the lock held.
+     */
+    private EventBuckets seed() {
+        EventBuckets seeded = new EventBuckets();
+        if (source == PeakTimeSource.DATABASE) {
+            for (DealTimeWindowCount windowCount : dealRepository.countValidDealsByTimeWindow()) {
+                seeded.applyWindow(new DealWindow(windowCount.getStartTime(), windowCount.getEndTime()),
+                                   Math.toIntExact(windowCount.getDealCount()));
+            }
+        } else {
+            for (DealTimeWindow timeWindow : dealRepository.findValidDealTimeWindows()) {
+                DealWindow window = new DealWindow(timeWindow.getStartTime(), timeWindow.getEndTime());
+                seeded.dealWindows.put(timeWindow.getDealId(), window);
+                seeded.applyWindow(window, 1);
+            }
         }
+        return seeded;
+    }
 
-        PeakWindowIndices peakIndices = findLongestPeakWindowIndices(slotDealCounts, maximumActiveDeals);
+    /**
+     * Splits the slots into runs of equal non-zero deal counts in one pass and
+     * returns the first topWindows of them, busiest first.
+     */
+    private List<PeakTimeWindow> findBusiestWindows(int[] slotCounts, int granularityMinutes, int topWindows) {
+        List<SlotRun> runs = new ArrayList<>();
+        int runStart = 0;
+        for (int i = 1; i <= slotCounts.length; i++) {
+            if (i == slotCounts.length || slotCounts[i] != slotCounts[runStart]) {
+                if (slotCounts[runStart] > 0) {
+                    runs.add(new SlotRun(runStart, i - runStart, slotCounts[runStart]));
+                }
+                runStart = i;
+            }
+        }
 
-        LocalTime peakStartTime = LocalTime.MIDNIGHT.plusMinutes(peakIndices.startSlotIndex * INTERVAL_GRANULARITY_MINUTES);
-        LocalTime peakEndTime = LocalTime.MIDNIGHT.plusMinutes((peakIndices.startSlotIndex + peakIndices.length) * INTERVAL_GRANULARITY_MINUTES);
+        runs.sort(Comparator.comparingInt((SlotRun run) -> run.dealCount).reversed()
+                            .thenComparing(Comparator.comparingInt((SlotRun run) -> run.length).reversed())
+                            .thenComparingInt(run -> run.startSlotIndex));
 
-        if (peakEndTime.equals(LocalTime.MIDNIGHT) && (peakIndices.startSlotIndex + peakIndices.length) * INTERVAL_GRANULARITY_MINUTES > 0) {
-            peakEndTime = LocalTime.MIDNIGHT;
+        List<PeakTimeWindow> windows = new ArrayList<>(Math.min(topWindows, runs.size()));
+        for (SlotRun run : runs.subList(0, Math.min(topWindows, runs.size()))) {
+            windows.add(new PeakTimeWindow(
+                    LocalTime.MIDNIGHT.plusMinutes((long) run.startSlotIndex * granularityMinutes),
+                    LocalTime.MIDNIGHT.plusMinutes((long) (run.startSlotIndex + run.length) * granularityMinutes),
+                    run.dealCount));
         }
-
-        return new PeakTimeWindow(peakStartTime, peakEndTime);
+        return windows;
     }
 
-    private void populateDealCountsInSlots(List<Deal> deals, List<Integer> slotCounts) {
-        for (Deal deal : deals) {
-            int dealStartMinutes = deal.getStartTime().toSecondOfDay() / 60;
-            int dealEndMinutes = deal.getEndTime().toSecondOfDay() / 60;
+    /**
+     * Start and end events bucketed by minute of day, the deal windows they were built from,
+     * and the slot counts swept from them so far.
+     */
+    private static class EventBuckets {
+        final int[] windowStartsAtMinute = new int[DAY_MINUTES + 1];
+        final int[] windowEndsAtMinute = new int[DAY_MINUTES + 1];
+        final Map<Long, DealWindow> dealWindows = new HashMap<>();
+        final Map<Integer, int[]> slotCountsByGranularity = new HashMap<>();
 
-            int startSlot = dealStartMinutes / INTERVAL_GRANULARITY_MINUTES;
-            int endSlot = (dealEndMinutes == 0 && deal.getEndTime().getHour() == 0)
-                          ? NUMBER_OF_SLOTS - 1
-                          : (dealEndMinutes - 1) / INTERVAL_GRANULARITY_MINUTES;
+        int[] slotCounts(int granularityMinutes) {
+            return slotCountsByGranularity.computeIfAbsent(granularityMinutes, this::sweepSlotCounts);
+        }
 
-            if (dealStartMinutes <= dealEndMinutes) {
-                for (int i = startSlot; i <= endSlot; i++) {
-                    slotCounts.set(i, slotCounts.get(i) + 1);
-                }
+        /**
+         * Records the window as start and end events, with the end exclusive.
+         * A window ending at midnight runs to the end of the day; any other window
+         * ending before it starts wraps past midnight and is split in two.
+         */
+        void applyWindow(DealWindow window, int delta) {
+            int endMinutes = (window.endMinutes == 0) ? DAY_MINUTES : window.endMinutes;
+
+            if (window.startMinutes <= endMinutes) {
+                addWindowEvents(window.startMinutes, endMinutes, delta);
             } else {
-                for (int i = startSlot; i < NUMBER_OF_SLOTS; i++) {
-                    slotCounts.set(i, slotCounts.get(i) + 1);
-                }
-                for (int i = 0; i <= endSlot; i++) {
-                    slotCounts.set(i, slotCounts.get(i) + 1);
-                }
+                addWindowEvents(window.startMinutes, DAY_MINUTES, delta);
+                addWindowEvents(0, endMinutes, delta);
             }
         }
-    }
 
+        private void addWindowEvents(int startMinute, int endMinuteExclusive, int delta) {
+            windowStartsAtMinute[startMinute] += delta;
+            windowEndsAtMinute[endMinuteExclusive] += delta;
+        }
+
+        /**
+         * Sweeps the minute event buckets in order and turns them into per-slot deal counts.
+         * A window starting at minute m enters the slot containing m; a window ending before
+         * minute m leaves after the slot containing m - 1.
+         */
+        private int[] sweepSlotCounts(int granularityMinutes) {
+            int numberOfSlots = DAY_MINUTES / granularityMinutes;
+            int[] slotDeltas = new int[numberOfSlots + 1];
+            for (int minute = 0; minute <= DAY_MINUTES; minute++) {
+                slotDeltas[minute / granularityMinutes] += windowStartsAtMinute[minute];
+                slotDeltas[(minute + granularityMinutes - 1) / granularityMinutes] -= windowEndsAtMinute[minute];
+            }
 
-    private int findMaxDealCount(List<Integer> slotCounts) {
-        int max = 0;
-        for (int count : slotCounts) {
-            if (count > max) {
-                max = count;
+            int[] slotDealCounts = new int[numberOfSlots];
+            int runningCount = 0;
+            for (int i = 0; i < numberOfSlots; i++) {
+                runningCount += slotDeltas[i];
+                slotDealCounts[i] = runningCount;
             }
+            return slotDealCounts;
         }
-        return max;
     }
 
-    private PeakWindowIndices findLongestPeakWindowIndices(List<Integer> slotCounts, int targetMaxDeals) {
-        int longestRunStart = -1;
-        int longestRunLength = 0;
-        int currentRunStart = -1;
-        int currentRunLength = 0;
-
-        for (int i = 0; i < NUMBER_OF_SLOTS; i++) {
-            if (slotCounts.get(i) == targetMaxDeals) {
-                if (currentRunLength == 0) {
-                    currentRunStart = i;
-                }
-                currentRunLength++;
+    private static class DealWindow {
+        final int startMinutes;
+        final int endMinutes;
 
-                if (currentRunLength > longestRunLength) {
-                    longestRunLength = currentRunLength;
-                    longestRunStart = currentRunStart;
-                }
-            } else {
-                currentRunLength = 0;
-                currentRunStart = -1;
-            }
+        DealWindow(LocalTime startTime, LocalTime endTime) {
+            this.startMinutes = startTime.toSecondOfDay() / 60;
+            this.endMinutes = endTime.toSecondOfDay() / 60;
         }
-        return new PeakWindowIndices(longestRunStart, longestRunLength);
     }
 
-    private static class PeakWindowIndices {
-        int startSlotIndex;
-        int length;
+    private static class SlotRun {
+        final int startSlotIndex;
+        final int length;
+        final int dealCount;
 
-        PeakWindowIndices(int startSlotIndex, int length) {
+        SlotRun(int startSlotIndex, int length, int dealCount) {
             this.startSlotIndex = startSlotIndex;
             this.length = length;
+            this.dealCount = dealCount;
         }
     }
 
     public static class PeakTimeWindow {
         private LocalTime peakTimeStart;
         private LocalTime peakTimeEnd;
+        private int activeDeals;
 
         public PeakTimeWindow(LocalTime peakTimeStart, LocalTime peakTimeEnd) {
             this.peakTimeStart = peakTimeStart;
             this.peakTimeEnd = peakTimeEnd;
         }
 
+        public PeakTimeWindow(LocalTime peakTimeStart, LocalTime peakTimeEnd, int activeDeals) {
+            this(peakTimeStart, peakTimeEnd);
+            this.activeDeals = activeDeals;
+        }
+
         public LocalTime getPeakTimeStart() {
             return peakTimeStart;
         }
@@ -138,5 +323,33 @@ public class PeakTimeCalculatorService {
         public LocalTime getPeakTimeEnd() {
             return peakTimeEnd;
         }
+
+        public int getActiveDeals() {
+            return activeDeals;
+        }
+    }
+
+    public static class PeakTimeHistogram {
+        private final int granularityMinutes;
+        private final int[] slotDealCounts;
+        private final List<PeakTimeWindow> busiestWindows;
+
+        public PeakTimeHistogram(int granularityMinutes, int[] slotDealCounts, List<PeakTimeWindow> busiestWindows) {
+            this.granularityMinutes = granularityMinutes;
+            this.slotDealCounts = slotDealCounts;
+            this.busiestWindows = busiestWindows;
+        }
+
+        public int getGranularityMinutes() {
+            return granularityMinutes;
+        }
+
+        public int[] getSlotDealCounts() {
+            return slotDealCounts;
+        }
+
+        public List<PeakTimeWindow> getBusiestWindows() {
+            return busiestWindows;
+        }
     }
 }
@@ -0,0 +1,64 @@
+package com.eatclub.deals.service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A quantity of units split over several independently updated stripes, so concurrent
+ * takers mostly hit different cache lines instead of all retrying on one counter.
+ *
+ * Unlike a LongAdder, the floor at zero is exact: a unit is taken with a compare-and-set
+ * on a stripe that still holds one, and a stripe never goes below zero. Stripes only ever
+ * decrease, so a taker that finds every stripe empty knows the stock is sold out.
+ */
+final class StripedStock {
+
+    /** 16 ints per 64-byte cache line, so neighbouring stripes do not share a line. */
+    private static final int PADDING = 16;
+
+    private final int stripeCount;
+    private final AtomicIntegerArray stripes;
+
+    StripedStock(int units, int stripeCount) {
+        this.stripeCount = Math.max(1, stripeCount);
+        this.stripes = new AtomicIntegerArray(this.stripeCount * PADDING);
+        int perStripe = Math.max(units, 0) / this.stripeCount;
+        int remainder = Math.max(units, 0) % this.stripeCount;
+        for (int i = 0; i < this.stripeCount; i++) {
+            stripes.set(i * PADDING, perStripe + (i < remainder ? 1 : 0));
+        }
+    }
+
+    /**
+     * Takes one unit, starting from a random stripe and moving on to the next one
+     * whenever a stripe is empty.
+     *
+     * @return true if a unit was taken, false if the stock is sold out.
+     */
+    boolean tryTake() {
+        int start = (stripeCount == 1) ? 0 : ThreadLocalRandom.current().nextInt(stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            int index = ((start + i) % stripeCount) * PADDING;
+            int units = stripes.get(index);
+            while (units > 0) {
+                if (stripes.compareAndSet(index, units, units - 1)) {
+                    return true;
+                }
+                units = stripes.get(index);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The units left. Exact when no take is in progress, otherwise a value
+     * between the counts before and after the concurrent takes.
+     */
+    int remaining() {
+        int sum = 0;
+        for (int i = 0; i < stripeCount; i++) {
+            sum += stripes.get(i * PADDING);
+        }
+        return sum;
+    }
+}
@@ -1,38 +1,102 @@
 package com.eatclub.deals.util;
 
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.Locale;
 import org.springframework.stereotype.Component;
 
 @Component
 public class DateTimeParser {
-    private static final DateTimeFormatter TIME_FORMATTER_12HR = DateTimeFormatter.ofPattern("h:mma", Locale.ENGLISH);
-    private static final DateTimeFormatter TIME_FORMATTER_24HR = DateTimeFormatter.ofPattern("HH:mm", Locale.ENGLISH);
+    private static final int DAY_MINUTES = 24 * 60;
+
+    /** Every minute of the day, so a successful parse returns a shared instance instead of allocating one. */
+    private static final LocalTime[] TIMES_OF_DAY = new LocalTime[DAY_MINUTES];
+
+    static {
+        for (int minute = 0; minute < DAY_MINUTES; minute++) {
+            TIMES_OF_DAY[minute] = LocalTime.of(minute / 60, minute % 60);
+        }
+    }
 
     /**
      * Helper method to parse a time string, trying multiple formats.
      * This method makes the controller's time parsing as robust as the DataLoader's.
+     * It accepts the same input as the "h:mma" and "HH:mm" patterns, with AM/PM in any case,
+     * in a single pass over the string: nothing is allocated and no exception is thrown
+     * unless the input matches neither format.
      * @param timeString The time string to parse (e.g., "3:00pm", "15:00").
      * @return LocalTime object.
      * @throws DateTimeParseException if no format matches.
      */
     public LocalTime parseTimeRobustly(String timeString) {
-        String upperCaseTimeString = timeString.toUpperCase(Locale.ENGLISH); // Convert to uppercase for robustness
-        try {
-            return LocalTime.parse(upperCaseTimeString, TIME_FORMATTER_12HR);
-        } catch (DateTimeParseException e1) {
-            try {
-                return LocalTime.parse(upperCaseTimeString, TIME_FORMATTER_24HR);
-            } catch (DateTimeParseException e2) {
-                throw new DateTimeParseException(
-                    "Could not parse time: '" + timeString + "'. Expected formats like '3:00pm', '10:30am' or '15:00', '22:00'.",
-                    timeString, 0, e2
-                );
+        int minuteOfDay = parseMinuteOfDay(timeString);
+        if (minuteOfDay < 0) {
+            throw new DateTimeParseException(
+                "Could not parse time: '" + timeString + "'. Expected formats like '3:00pm', '10:30am' or '15:00', '22:00'.",
+                timeString, 0
+            );
+        }
+        return TIMES_OF_DAY[minuteOfDay];
+    }
+
+    /**
+     * Parses "h:mma" (hour 0-12 with one or two digits, AM/PM in any case) or
+     * "HH:mm" (hour 00-23 with two digits, or 24:00 for midnight as java.time accepts it).
+     *
+     * @return The minute of the day, or -1 if the input matches neither format.
+     */
+    static int parseMinuteOfDay(String timeString) {
+        int length = timeString.length();
+        int colon;
+        if (length > 1 && timeString.charAt(1) == ':') {
+            colon = 1;
+        } else if (length > 2 && timeString.charAt(2) == ':') {
+            colon = 2;
+        } else {
+            return -1;
+        }
+        if (length < colon + 3) {
+            return -1;
+        }
+
+        int hour = parseDigits(timeString, 0, colon);
+        int minute = parseDigits(timeString, colon + 1, colon + 3);
+        if (hour < 0 || minute < 0 || minute > 59) {
+            return -1;
+        }
+
+        int suffixLength = length - (colon + 3);
+        if (suffixLength == 0) {
+            if (colon != 2 || hour > 24 || (hour == 24 && minute != 0)) {
+                return -1;
             }
+            return (hour % 24) * 60 + minute;
+        }
+        if (suffixLength != 2 || hour > 12 || toUpperCase(timeString.charAt(colon + 4)) != 'M') {
+            return -1;
+        }
+        char meridiem = toUpperCase(timeString.charAt(colon + 3));
+        if (meridiem == 'A') {
+            return (hour % 12) * 60 + minute;
         }
+        if (meridiem == 'P') {
+            return (hour % 12 + 12) * 60 + minute;
+        }
+        return -1;
     }
 
+    private static int parseDigits(String s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
 
-}
\ No newline at end of file
+    private static char toUpperCase(char c) {
+        return (c >= 'a' && c <= 'z') ? (char) (c - ('a' - 'A')) : c;
+    }
+}
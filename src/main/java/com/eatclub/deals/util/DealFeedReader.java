@@ -0,0 +1,73 @@
+package com.eatclub.deals.util;
+
+import com.eatclub.deals.dto.RestaurantFeedDto;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the restaurant/deal feed as a token stream.
+ * Only the restaurants of the current batch are materialized, so a feed of any size
+ * is read in memory bounded by the batch size.
+ */
+public class DealFeedReader implements Closeable {
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+    private boolean exhausted;
+
+    public DealFeedReader(ObjectMapper objectMapper, InputStream feed) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = objectMapper.getFactory().createParser(feed);
+        moveToRestaurantsArray();
+    }
+
+    /**
+     * Reads the next restaurants of the feed.
+     *
+     * @param batchSize The maximum number of restaurants to read.
+     * @return The restaurants read, or an empty list once the feed is exhausted.
+     * @throws IOException if the feed cannot be read or is not valid JSON.
+     */
+    public List<RestaurantFeedDto> nextBatch(int batchSize) throws IOException {
+        List<RestaurantFeedDto> batch = new ArrayList<>(batchSize);
+        while (!exhausted && batch.size() < batchSize) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                batch.add(objectMapper.readValue(parser, RestaurantFeedDto.class));
+            } else {
+                exhausted = true;
+            }
+        }
+        return batch;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    /**
+     * Advances the parser to the start of the top-level "restaurants" array,
+     * skipping any other top-level fields.
+     */
+    private void moveToRestaurantsArray() throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a JSON object at the root of the feed.");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("restaurants".equals(fieldName) && value == JsonToken.START_ARRAY) {
+                return;
+            }
+            parser.skipChildren();
+        }
+        throw new IOException("No 'restaurants' array found in the feed.");
+    }
+}
@@ -0,0 +1,77 @@
+package com.eatclub.deals.util;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+import com.eatclub.deals.config.DateTimeConfig;
+
+/**
+ * Every minute of the day rendered once in the two formats of the API: "HH:mm" for peak times
+ * and "h:mma" in upper case (e.g. "3:00PM") for restaurant hours. Responses look the strings up
+ * instead of formatting, so rendering a time allocates nothing and every response shares the
+ * same 2 x 1440 String instances.
+ *
+ * STANDARD is built from the DateTimeConfig formatters. Its callers are DTO factories and
+ * query projections, which are not Spring beans, so it is a constant rather than a bean.
+ */
+public final class TimeOfDayStrings {
+
+    private static final int DAY_MINUTES = 24 * 60;
+
+    public static final TimeOfDayStrings STANDARD =
+            new TimeOfDayStrings(DateTimeConfig.HHMM_FORMATTER, DateTimeConfig.HHMMA_FORMATTER);
+
+    private final DateTimeFormatter hhmmFormatter;
+    private final DateTimeFormatter hhmmaFormatter;
+    private final String[] hhmm = new String[DAY_MINUTES];
+    private final String[] hhmma = new String[DAY_MINUTES];
+
+    public TimeOfDayStrings(DateTimeFormatter hhmmFormatter, DateTimeFormatter hhmmaFormatter) {
+        this.hhmmFormatter = hhmmFormatter;
+        this.hhmmaFormatter = hhmmaFormatter;
+        for (int minute = 0; minute < DAY_MINUTES; minute++) {
+            LocalTime time = LocalTime.of(minute / 60, minute % 60);
+            hhmm[minute] = time.format(hhmmFormatter);
+            hhmma[minute] = time.format(hhmmaFormatter).toUpperCase(Locale.ENGLISH);
+        }
+    }
+
+    /**
+     * @param time The time, or null.
+     * @return The time as "HH:mm", or null.
+     */
+    public String hhmm(LocalTime time) {
+        if (time == null) {
+            return null;
+        }
+        return isOnTheMinute(time) ? hhmm[minuteOfDay(time)] : time.format(hhmmFormatter);
+    }
+
+    /**
+     * @param minuteOfDay The minute of the day; 1440 (the end of the day) renders as midnight.
+     * @return The minute as "HH:mm".
+     */
+    public String hhmm(int minuteOfDay) {
+        return hhmm[Math.floorMod(minuteOfDay, DAY_MINUTES)];
+    }
+
+    /**
+     * @param time The time, or null.
+     * @return The time as "h:mma" in upper case, e.g. "3:00PM", or null.
+     */
+    public String hhmma(LocalTime time) {
+        if (time == null) {
+            return null;
+        }
+        return isOnTheMinute(time) ? hhmma[minuteOfDay(time)] : time.format(hhmmaFormatter).toUpperCase(Locale.ENGLISH);
+    }
+
+    private static boolean isOnTheMinute(LocalTime time) {
+        return time.getSecond() == 0 && time.getNano() == 0;
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
@@ -0,0 +1,17 @@
+-- Deal and Restaurant ids move from IDENTITY columns to pooled sequences (allocationSize = 50).
+-- Existing ids are kept: each sequence is positioned so that Hibernate's first block starts
+-- right after the current maximum id. Hibernate's pooled optimizer treats the value returned
+-- by nextval as the top of the block, hence MAX(id) + 50.
+
+CREATE SEQUENCE IF NOT EXISTS restaurant_id_seq INCREMENT BY 50 START WITH 1;
+CREATE SEQUENCE IF NOT EXISTS deal_id_seq INCREMENT BY 50 START WITH 1;
+
+DO $$
+BEGIN
+    IF to_regclass('restaurants') IS NOT NULL THEN
+        PERFORM setval('restaurant_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM restaurants), false);
+    END IF;
+    IF to_regclass('deals') IS NOT NULL THEN
+        PERFORM setval('deal_id_seq', (SELECT COALESCE(MAX(id), 0) + 50 FROM deals), false);
+    END IF;
+END $$;
@@ -0,0 +1,29 @@
+-- Restaurant cuisines move from the comma-joined restaurants.cuisines column to one row per
+-- cuisine in restaurant_cuisines, in their original order. Cuisine filters match the lower-cased
+-- name, hence the expression index. The foreign key to restaurants is added by Hibernate.
+
+CREATE TABLE IF NOT EXISTS restaurant_cuisines (
+    restaurant_id BIGINT NOT NULL,
+    cuisine_order INTEGER NOT NULL,
+    cuisine VARCHAR(100) NOT NULL,
+    PRIMARY KEY (restaurant_id, cuisine_order)
+);
+
+CREATE INDEX IF NOT EXISTS idx_restaurant_cuisine ON restaurant_cuisines (cuisine);
+CREATE INDEX IF NOT EXISTS idx_restaurant_cuisine_lower ON restaurant_cuisines (lower(cuisine));
+
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_name = 'restaurants' AND column_name = 'cuisines') THEN
+        EXECUTE '
+            INSERT INTO restaurant_cuisines (restaurant_id, cuisine_order, cuisine)
+            SELECT id, ROW_NUMBER() OVER (PARTITION BY id ORDER BY ord) - 1, cuisine
+            FROM (SELECT r.id, t.ord, trim(t.cuisine) AS cuisine
+                  FROM restaurants r
+                  CROSS JOIN LATERAL unnest(string_to_array(r.cuisines, '','')) WITH ORDINALITY AS t(cuisine, ord)) split
+            WHERE cuisine <> ''''
+            ON CONFLICT DO NOTHING';
+        ALTER TABLE restaurants DROP COLUMN cuisines;
+    END IF;
+END $$;
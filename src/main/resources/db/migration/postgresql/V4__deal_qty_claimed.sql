@@ -0,0 +1,5 @@
+-- Units claimed through the service are counted apart from qty_left, so that re-ingesting a
+-- feed subtracts them from the feed's stock instead of overwriting them. Claims made before
+-- this migration are not known and start at zero.
+
+ALTER TABLE deals ADD COLUMN IF NOT EXISTS qty_claimed INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,89 @@
+package com.eatclub.deals;
+
+import com.eatclub.deals.dto.DealResponseDto;
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.model.PeakTimeResponse;
+import com.eatclub.deals.repository.DealRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Starts the whole application as it runs with local,reactive: the WebFlux controllers read
+ * through R2DBC while JPA, the DataLoader and the peak-time service keep their JDBC DataSource.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"local", "reactive"})
+class ReactiveDealsServiceApplicationTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private DealRepository dealRepository;
+
+    /**
+     * Test case: Deals requested from the reactive stack.
+     * Expected: The deals the DataLoader wrote through JPA, read back through R2DBC.
+     */
+    @Test
+    void getDeals_ReadsLoadedDealsThroughR2dbc() {
+        List<String> expectedDealIds = dealRepository.findActiveDealsAtTime(LocalTime.of(19, 0)).stream()
+                                                     .map(Deal::getDealObjectId)
+                                                     .sorted()
+                                                     .toList();
+        assertFalse(expectedDealIds.isEmpty());
+
+        List<DealResponseDto> deals = webTestClient.get().uri("/v1/deals?timeOfDay=7:00pm")
+                                                   .accept(MediaType.APPLICATION_JSON)
+                                                   .exchange()
+                                                   .expectStatus().isOk()
+                                                   .expectBodyList(DealResponseDto.class)
+                                                   .returnResult()
+                                                   .getResponseBody();
+
+        assertNotNull(deals);
+        assertEquals(expectedDealIds, deals.stream().map(DealResponseDto::getDealObjectId).sorted().toList());
+    }
+
+    /**
+     * Test case: Peak time requested from the reactive stack.
+     * Expected: A window computed from the deals in the JDBC database.
+     */
+    @Test
+    void getPeakTime_CalculatedFromJdbc() {
+        PeakTimeResponse peakTime = webTestClient.get().uri("/v1/peak-time")
+                                                 .exchange()
+                                                 .expectStatus().isOk()
+                                                 .expectBody(PeakTimeResponse.class)
+                                                 .returnResult()
+                                                 .getResponseBody();
+
+        assertNotNull(peakTime);
+        assertNotNull(peakTime.getPeakTimeStart());
+        assertNotNull(peakTime.getPeakTimeEnd());
+    }
+
+    /**
+     * Test case: A path no reactive controller serves.
+     * Expected: HTTP 404 with the NOT_FOUND error code, not a server error.
+     */
+    @Test
+    void unmappedPath_NotFound() {
+        webTestClient.get().uri("/v1/feed")
+                     .exchange()
+                     .expectStatus().isNotFound()
+                     .expectBody()
+                     .jsonPath("$.errorCode").isEqualTo("NOT_FOUND");
+    }
+}
@@ -0,0 +1,96 @@
+package com.eatclub.deals.controller;
+
+import com.eatclub.deals.dto.DealResponseDto;
+import com.eatclub.deals.exception.GlobalExceptionHandler;
+import com.eatclub.deals.repository.ReactiveDealRepository;
+import com.eatclub.deals.service.PeakTimeCalculatorService;
+import com.eatclub.deals.util.DateTimeParser;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+
+@WebFluxTest(ReactiveDealController.class)
+@Import(GlobalExceptionHandler.class)
+public class ReactiveDealControllerTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private ReactiveDealRepository reactiveDealRepository;
+
+    @MockBean
+    private PeakTimeCalculatorService peakTimeCalculatorService;
+
+    @MockBean
+    private DateTimeParser dateTimeParser;
+
+    private DealResponseDto createDto(String dealObjectId) {
+        return new DealResponseDto("r1", "Masala Kitchen", "55 Walsh Street", "Lower East",
+                                   "3:00PM", "9:00PM", dealObjectId, 30.0, false, false, 4);
+    }
+
+    /**
+     * Test case: Deals requested as NDJSON.
+     * Expected: One JSON document per line, in the order the repository emits them.
+     */
+    @Test
+    void getDeals_StreamsNdjson() {
+        LocalTime queryTime = LocalTime.of(19, 0);
+        when(dateTimeParser.parseTimeRobustly("7:00pm")).thenReturn(queryTime);
+        when(reactiveDealRepository.findActiveDealsAtTime(queryTime)).thenReturn(Flux.just(createDto("d1"), createDto("d2")));
+
+        webTestClient.get().uri("/v1/deals?timeOfDay=7:00pm")
+                     .accept(MediaType.APPLICATION_NDJSON)
+                     .exchange()
+                     .expectStatus().isOk()
+                     .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                     .expectBodyList(DealResponseDto.class)
+                     .isEqualTo(List.of(createDto("d1"), createDto("d2")));
+    }
+
+    /**
+     * Test case: An empty timeOfDay.
+     * Expected: 400 with INVALID_INPUT from the GlobalExceptionHandler.
+     */
+    @Test
+    void getDeals_EmptyTimeOfDay() {
+        webTestClient.get().uri(uri -> uri.path("/v1/deals").queryParam("timeOfDay", " ").build())
+                     .accept(MediaType.APPLICATION_JSON)
+                     .exchange()
+                     .expectStatus().isBadRequest()
+                     .expectBody().jsonPath("$.errorCode").isEqualTo("INVALID_INPUT");
+    }
+
+    /**
+     * Test case: A peak window exists, then none does.
+     * Expected: 200 with the window formatted as HH:mm, then 204 No Content.
+     */
+    @Test
+    void getPeakTime() {
+        when(peakTimeCalculatorService.calculatePeakTimeWindow(30))
+                .thenReturn(new PeakTimeCalculatorService.PeakTimeWindow(LocalTime.of(18, 0), LocalTime.of(19, 30)))
+                .thenReturn(new PeakTimeCalculatorService.PeakTimeWindow(null, null));
+
+        webTestClient.get().uri("/v1/peak-time")
+                     .exchange()
+                     .expectStatus().isOk()
+                     .expectBody()
+                     .jsonPath("$.peakTimeStart").isEqualTo("18:00")
+                     .jsonPath("$.peakTimeEnd").isEqualTo("19:30");
+
+        webTestClient.get().uri("/v1/peak-time")
+                     .exchange()
+                     .expectStatus().isNoContent();
+    }
+}
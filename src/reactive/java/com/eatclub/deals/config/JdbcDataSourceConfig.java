@@ -0,0 +1,44 @@
+package com.eatclub.deals.config;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.orm.jpa.JpaTransactionManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Declares the JDBC DataSource and its transaction manager for the reactive build.
+ *
+ * Spring Boot backs off its own DataSource as soon as an R2DBC ConnectionFactory exists,
+ * which would leave JPA, the DealRepository and everything built on it (the DataLoader, the
+ * active deal index, claims) without a database. This one is bound from the same
+ * spring.datasource.* and spring.datasource.hikari.* properties, so both stacks read the same
+ * database. The JPA transaction manager is primary, so @Transactional methods keep using it
+ * next to the R2DBC one.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class JdbcDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (properties.getName() != null) {
+            dataSource.setPoolName(properties.getName());
+        }
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+}
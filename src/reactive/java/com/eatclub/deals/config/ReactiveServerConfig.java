@@ -0,0 +1,24 @@
+package com.eatclub.deals.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Serves the reactive build from Reactor Netty.
+ *
+ * spring-boot-starter-web stays on the classpath for the servlet controllers, and with Tomcat
+ * present Spring Boot would run WebFlux through Tomcat's servlet adapter, a thread per
+ * connection again. Under 800 concurrent clients that adapter also left the odd NDJSON
+ * response committed but never completed.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveServerConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,85 @@
+package com.eatclub.deals.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.eatclub.deals.dto.DealResponseDto;
+import com.eatclub.deals.exception.InvalidInputException;
+import com.eatclub.deals.model.PeakTimeResponse;
+import com.eatclub.deals.repository.ReactiveDealRepository;
+import com.eatclub.deals.service.PeakTimeCalculatorService;
+import com.eatclub.deals.util.DateTimeParser;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalTime;
+
+/**
+ * WebFlux variant of the read endpoints of DealController, active when the application runs
+ * as a reactive web application (the reactive profile). Nothing here blocks an event-loop thread.
+ */
+@RestController
+@RequestMapping("/v1")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDealController {
+
+    private final ReactiveDealRepository reactiveDealRepository;
+    private final PeakTimeCalculatorService peakTimeCalculatorService;
+    private final DateTimeParser dateTimeParser;
+
+    public ReactiveDealController(ReactiveDealRepository reactiveDealRepository,
+                                  PeakTimeCalculatorService peakTimeCalculatorService,
+                                  DateTimeParser dateTimeParser) {
+        this.reactiveDealRepository = reactiveDealRepository;
+        this.peakTimeCalculatorService = peakTimeCalculatorService;
+        this.dateTimeParser = dateTimeParser;
+    }
+
+    /**
+     * API endpoint to stream the active restaurant deals for a specified time of day, read
+     * through R2DBC. With Accept: application/x-ndjson each deal is written as one JSON line,
+     * and with text/event-stream as one server-sent event, as soon as it is read; the database
+     * fetch is paced by how fast the client consumes the response. Plain application/json
+     * returns a JSON array.
+     *
+     * @param timeOfDay A string representing the time (e.g., "10:30am", "3:00pm", "15:00").
+     * @return A Flux of DealResponseDto objects.
+     * Error responses for invalid parameters are handled globally by the GlobalExceptionHandler.
+     */
+    @GetMapping(value = "/deals", produces = {MediaType.APPLICATION_NDJSON_VALUE,
+                                              MediaType.TEXT_EVENT_STREAM_VALUE,
+                                              MediaType.APPLICATION_JSON_VALUE})
+    public Flux<DealResponseDto> getDealsbyTimeOfDay(@RequestParam String timeOfDay) {
+        if (timeOfDay.trim().isEmpty()) {
+            throw new InvalidInputException("The 'timeOfDay' parameter cannot be an empty string.");
+        }
+        LocalTime queryTime = dateTimeParser.parseTimeRobustly(timeOfDay);
+        return reactiveDealRepository.findActiveDealsAtTime(queryTime);
+    }
+
+    /**
+     * API endpoint to retrieve the window of the day in which the most deals are available.
+     * Slot counts are kept in memory by the PeakTimeCalculatorService; the first read after
+     * a change seeds them over JDBC, so the calculation runs on the bounded elastic scheduler.
+     *
+     * @param granularity The slot length in minutes (default 30). Must divide a day evenly.
+     * @return A Mono of the PeakTimeResponse, or 204 No Content if there are no deals.
+     */
+    @GetMapping("/peak-time")
+    public Mono<ResponseEntity<PeakTimeResponse>> getPeakDealTime(
+            @RequestParam(defaultValue = "" + PeakTimeCalculatorService.DEFAULT_GRANULARITY_MINUTES) int granularity) {
+        return Mono.fromCallable(() -> peakTimeCalculatorService.calculatePeakTimeWindow(granularity))
+                   .subscribeOn(Schedulers.boundedElastic())
+                   .map(peakWindow -> (peakWindow.getPeakTimeStart() == null)
+                           ? ResponseEntity.<PeakTimeResponse>noContent().build()
+                           : ResponseEntity.ok(new PeakTimeResponse(peakWindow.getPeakTimeStart(),
+                                                                    peakWindow.getPeakTimeEnd())));
+    }
+}
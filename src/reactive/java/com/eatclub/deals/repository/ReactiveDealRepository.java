@@ -0,0 +1,66 @@
+package com.eatclub.deals.repository;
+
+import java.time.LocalTime;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.eatclub.deals.dto.DealResponseDto;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking counterpart of DealRepository for the reactive profile, reading through R2DBC.
+ *
+ * Rows are selected as the flat columns of DealResponseDto, so no Deal or Restaurant entity
+ * is built, and are emitted as the driver decodes them: a slow subscriber slows down the
+ * fetch instead of the results being buffered in memory.
+ */
+@Repository
+public class ReactiveDealRepository {
+
+    private static final String ACTIVE_DEALS_AT_TIME_SQL =
+            "SELECT r.restaurant_object_id, d.restaurant_name_denormalized, r.address_1, r.suburb, " +
+            "r.open_time, r.close_time, d.deal_object_id, d.discount, d.dine_in, d.lightning, d.qty_left " +
+            "FROM deals d JOIN restaurants r ON r.id = d.restaurant_id " +
+            "WHERE d.qty_left > 0 " +
+            "AND d.is_deleted = FALSE " +
+            "AND ((d.start_time <= d.end_time AND :queryTime >= d.start_time AND :queryTime <= d.end_time) " +
+            "OR (d.start_time > d.end_time AND (:queryTime >= d.start_time OR :queryTime <= d.end_time)))";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveDealRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    /**
+     * Finds all active deals for a given time of day, with the same semantics as
+     * DealRepository.findActiveDealsAtTime, including deals that wrap past midnight.
+     *
+     * @param queryTime The LocalTime to check for active deals (e.g., 10:30, 15:00).
+     * @return A Flux of the active deals, mapped to DealResponseDto.
+     */
+    public Flux<DealResponseDto> findActiveDealsAtTime(LocalTime queryTime) {
+        return databaseClient.sql(ACTIVE_DEALS_AT_TIME_SQL)
+                             .bind("queryTime", queryTime)
+                             .map(ReactiveDealRepository::toDto)
+                             .all();
+    }
+
+    private static DealResponseDto toDto(Readable row) {
+        return DealResponseDto.fromColumns(
+                row.get("restaurant_object_id", String.class),
+                row.get("restaurant_name_denormalized", String.class),
+                row.get("address_1", String.class),
+                row.get("suburb", String.class),
+                row.get("open_time", LocalTime.class),
+                row.get("close_time", LocalTime.class),
+                row.get("deal_object_id", String.class),
+                row.get("discount", Double.class),
+                row.get("dine_in", Boolean.class),
+                row.get("lightning", Boolean.class),
+                row.get("qty_left", Integer.class));
+    }
+}
@@ -1,40 +1,69 @@
 package com.eatclub.deals.controller;
 
+import com.eatclub.deals.dto.DealResponseDto;
+import com.eatclub.deals.dto.DealWireFormat;
 import com.eatclub.deals.entity.Deal;
 import com.eatclub.deals.entity.Restaurant;
+import com.eatclub.deals.exception.DealNotFoundException;
+import com.eatclub.deals.exception.DealSoldOutException;
 import com.eatclub.deals.exception.GlobalExceptionHandler;
+import com.eatclub.deals.model.DealClaimResponse;
+import com.eatclub.deals.service.ActiveDealIndex;
+import com.eatclub.deals.service.DealClaimService;
 import com.eatclub.deals.repository.DealRepository;
+import com.eatclub.deals.service.DealResponseSnapshotService;
+import com.eatclub.deals.service.DealSearchService;
+import com.eatclub.deals.service.DealTimeline;
 import com.eatclub.deals.service.PeakTimeCalculatorService;
 import com.eatclub.deals.util.DateTimeParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.time.Instant;
 
+import static org.hamcrest.Matchers.contains;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(DealController.class)
-@Import(GlobalExceptionHandler.class)
+@Import({GlobalExceptionHandler.class, DealResponseSnapshotService.class, DealSearchService.class})
 public class DealControllerTest {
 
     @Autowired
     private MockMvc mockMvc;
 
     @MockBean
-    private DealRepository dealRepository;
+    private ActiveDealIndex activeDealIndex;
 
     @MockBean
     private PeakTimeCalculatorService peakTimeCalculatorService;
@@ -42,6 +71,18 @@ public class DealControllerTest {
     @MockBean
     private DateTimeParser dateTimeParser;
 
+    @MockBean
+    private DealRepository dealRepository;
+
+    @MockBean
+    private DealClaimService dealClaimService;
+
+    @Autowired
+    private DealResponseSnapshotService dealResponseSnapshotService;
+
+    @Autowired
+    private DealSearchService dealSearchService;
+
     private static final DateTimeFormatter PEAK_TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
 
     private Restaurant createSampleRestaurant(Long id, String restaurantObjectId, String name,
@@ -54,7 +95,7 @@ public class DealControllerTest {
         restaurant.setRestarantSuburb(suburb);
         restaurant.setOpenTime(openTime);
         restaurant.setCloseTime(closeTime);
-        restaurant.setCuisines("Various");
+        restaurant.setCuisines(List.of("Various"));
         restaurant.setImageLink("http://example.com/image.jpg");
         restaurant.setCreatedAt(Instant.now());
         restaurant.setUpdatedAt(Instant.now());
@@ -116,7 +157,7 @@ public class DealControllerTest {
                 10.0, true, true, 3, LocalTime.of(13,0), LocalTime.of(23,0)
         );
 
-        when(dealRepository.findActiveDealsAtTime(parsedTime)).thenReturn(Arrays.asList(
+        when(activeDealIndex.findActiveDealsAtTime(parsedTime)).thenReturn(Arrays.asList(
             deal1, deal2
         ));
 
@@ -154,6 +195,184 @@ public class DealControllerTest {
     }
 
 
+    /**
+     * Test case for two times in the same segment of the deal index.
+     * Expected: Both are answered from one snapshot, with the same body and ETag,
+     * while a time in another segment gets a body and ETag of its own.
+     *
+     * @throws Exception If an error occurs during the mock MVC request.
+     */
+    @Test
+    void getDealsByTimeOfDay_ServedFromSnapshot() throws Exception {
+        LocalTime twoPm = LocalTime.of(14, 0);
+        LocalTime threePm = LocalTime.of(15, 0);
+        LocalTime noon = LocalTime.of(12, 0);
+        when(dateTimeParser.parseTimeRobustly("2:00pm")).thenReturn(twoPm);
+        when(dateTimeParser.parseTimeRobustly("3:00pm")).thenReturn(threePm);
+        when(dateTimeParser.parseTimeRobustly("12:00pm")).thenReturn(noon);
+
+        Restaurant abcChicken = createSampleRestaurant(
+                101L, "D80263E8-FD89-2C70-FF6B-D854ADB8DB00", "ABC Chicken",
+                "361 Queen Street", "Melbourne", LocalTime.of(12, 0), LocalTime.of(23, 0)
+        );
+        Restaurant kekou = createSampleRestaurant(
+                102L, "B5713CD0-91BF-40C7-AFC3-7D46D26B00BF", "Kekou",
+                "396 Bridge Road", "Richmond", LocalTime.of(13, 0), LocalTime.of(23, 0)
+        );
+        Deal deal1 = createSampleDeal(
+                1L, "D80263E8-0000-2C70-FF6B-D854ADB8DB00", abcChicken, "Chicken Combo Deal",
+                30.0, false, false, 1, LocalTime.of(12,0), LocalTime.of(23,0)
+        );
+        Deal deal2 = createSampleDeal(
+                2L, "B5713CD0-0000-40C7-AFC3-7D46D26B00BF", kekou, "Noodle Bowl Special",
+                10.0, true, true, 3, LocalTime.of(13,0), LocalTime.of(23,0)
+        );
+        DealTimeline timeline = DealTimeline.of(Arrays.asList(deal1, deal2));
+        for (LocalTime time : List.of(twoPm, threePm, noon)) {
+            when(activeDealIndex.findActiveDealsAtTime(time)).thenReturn(timeline.activeAt(time));
+        }
+
+        MvcResult atTwo = mockMvc.perform(get("/v1/deals").param("timeOfDay", "2:00pm"))
+                                 .andExpect(status().isOk())
+                                 .andExpect(jsonPath("$.length()").value(2))
+                                 .andExpect(jsonPath("$[0].dealObjectId").value("D80263E8-0000-2C70-FF6B-D854ADB8DB00"))
+                                 .andExpect(jsonPath("$[1].dealObjectId").value("B5713CD0-0000-40C7-AFC3-7D46D26B00BF"))
+                                 .andReturn();
+        MvcResult atThree = mockMvc.perform(get("/v1/deals").param("timeOfDay", "3:00pm"))
+                                   .andExpect(status().isOk())
+                                   .andReturn();
+        MvcResult atNoon = mockMvc.perform(get("/v1/deals").param("timeOfDay", "12:00pm"))
+                                  .andExpect(status().isOk())
+                                  .andExpect(jsonPath("$.length()").value(1))
+                                  .andReturn();
+
+        String etag = atTwo.getResponse().getHeader("ETag");
+        assertEquals(etag, atThree.getResponse().getHeader("ETag"));
+        assertEquals(atTwo.getResponse().getContentAsString(), atThree.getResponse().getContentAsString());
+        assertNotEquals(etag, atNoon.getResponse().getHeader("ETag"));
+        assertSame(dealResponseSnapshotService.snapshotOf(timeline.activeAt(twoPm), DealWireFormat.JSON),
+                   dealResponseSnapshotService.snapshotOf(timeline.activeAt(threePm), DealWireFormat.JSON));
+    }
+
+    /**
+     * Test case for a request that accepts Smile.
+     * Expected: HTTP 200 OK, a Smile body holding the same deals as the JSON one,
+     * and Vary: Accept so caches keep the encodings apart.
+     *
+     * @throws Exception If an error occurs during the mock MVC request.
+     */
+    @Test
+    void getDealsByTimeOfDay_Smile() throws Exception {
+        when(dateTimeParser.parseTimeRobustly("2:00pm")).thenReturn(LocalTime.of(14, 0));
+        Restaurant abcChicken = createSampleRestaurant(
+                101L, "D80263E8-FD89-2C70-FF6B-D854ADB8DB00", "ABC Chicken",
+                "361 Queen Street", "Melbourne", LocalTime.of(12, 0), LocalTime.of(23, 0)
+        );
+        Deal deal = createSampleDeal(
+                1L, "D80263E8-0000-2C70-FF6B-D854ADB8DB00", abcChicken, "Chicken Combo Deal",
+                30.0, false, false, 1, LocalTime.of(12, 0), LocalTime.of(23, 0)
+        );
+        when(activeDealIndex.findActiveDealsAtTime(LocalTime.of(14, 0)))
+                .thenReturn(DealTimeline.of(List.of(deal)).activeAt(LocalTime.of(14, 0)));
+
+        MvcResult result = mockMvc.perform(get("/v1/deals")
+                                          .param("timeOfDay", "2:00pm")
+                                          .header(HttpHeaders.ACCEPT, "application/x-jackson-smile"))
+                                  .andExpect(status().isOk())
+                                  .andExpect(content().contentType("application/x-jackson-smile"))
+                                  .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                                  .andReturn();
+
+        JsonNode deals = new ObjectMapper(new SmileFactory()).readTree(result.getResponse().getContentAsByteArray());
+        assertEquals(1, deals.size());
+        assertEquals("D80263E8-0000-2C70-FF6B-D854ADB8DB00", deals.get(0).get("dealObjectId").asText());
+        assertEquals("12:00PM", deals.get(0).get("restaurantOpen").asText());
+        assertEquals(30.0, deals.get(0).get("discount").asDouble());
+    }
+
+    /**
+     * Test case for a batch request at three times, two of which have the same active deals.
+     * Expected: HTTP 200 OK with every restaurant and deal listed once and the
+     * active deals of each time, in request order, as indexes into deals.
+     *
+     * @throws Exception If an error occurs during the mock MVC request.
+     */
+    @Test
+    void getDealsBatch_Success() throws Exception {
+        when(dateTimeParser.parseTimeRobustly("12:30pm")).thenReturn(LocalTime.of(12, 30));
+        when(dateTimeParser.parseTimeRobustly("1:30pm")).thenReturn(LocalTime.of(13, 30));
+        when(dateTimeParser.parseTimeRobustly("14:00")).thenReturn(LocalTime.of(14, 0));
+        Restaurant abcChicken = createSampleRestaurant(
+                101L, "D80263E8-FD89-2C70-FF6B-D854ADB8DB00", "ABC Chicken",
+                "361 Queen Street", "Melbourne", LocalTime.of(12, 0), LocalTime.of(23, 0)
+        );
+        Restaurant kekou = createSampleRestaurant(
+                102L, "B5713CD0-91BF-40C7-AFC3-7D46D26B00BF", "Kekou",
+                "396 Bridge Road", "Richmond", LocalTime.of(13, 0), LocalTime.of(23, 0)
+        );
+        Deal deal1 = createSampleDeal(
+                1L, "D80263E8-0000-2C70-FF6B-D854ADB8DB00", abcChicken, "Chicken Combo Deal",
+                30.0, false, false, 1, LocalTime.of(12, 0), LocalTime.of(23, 0)
+        );
+        Deal deal2 = createSampleDeal(
+                2L, "B5713CD0-0000-40C7-AFC3-7D46D26B00BF", kekou, "Noodle Bowl Special",
+                10.0, true, true, 3, LocalTime.of(13, 0), LocalTime.of(23, 0)
+        );
+        when(activeDealIndex.current()).thenReturn(DealTimeline.of(List.of(deal1, deal2)));
+
+        mockMvc.perform(post("/v1/deals/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"timesOfDay\": [\"12:30pm\", \"1:30pm\", \"14:00\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.restaurants.length()").value(2))
+                .andExpect(jsonPath("$.restaurants[0].restaurantName").value("ABC Chicken"))
+                .andExpect(jsonPath("$.restaurants[0].restaurantOpen").value("12:00PM"))
+                .andExpect(jsonPath("$.restaurants[1].restaurantName").value("Kekou"))
+                .andExpect(jsonPath("$.deals.length()").value(2))
+                .andExpect(jsonPath("$.deals[0].dealObjectId").value("D80263E8-0000-2C70-FF6B-D854ADB8DB00"))
+                .andExpect(jsonPath("$.deals[0].restaurant").value(0))
+                .andExpect(jsonPath("$.deals[1].dealObjectId").value("B5713CD0-0000-40C7-AFC3-7D46D26B00BF"))
+                .andExpect(jsonPath("$.deals[1].restaurant").value(1))
+                .andExpect(jsonPath("$.deals[1].qtyLeft").value(3))
+                .andExpect(jsonPath("$.times.length()").value(3))
+                .andExpect(jsonPath("$.times[0].timeOfDay").value("12:30"))
+                .andExpect(jsonPath("$.times[0].deals").value(contains(0)))
+                .andExpect(jsonPath("$.times[1].timeOfDay").value("13:30"))
+                .andExpect(jsonPath("$.times[1].deals").value(contains(0, 1)))
+                .andExpect(jsonPath("$.times[2].timeOfDay").value("14:00"))
+                .andExpect(jsonPath("$.times[2].deals").value(contains(0, 1)));
+    }
+
+    /**
+     * Test case for a batch request with no times.
+     * Expected: HTTP 400 Bad Request with "INVALID_INPUT" code.
+     *
+     * @throws Exception If an error occurs during the mock MVC request.
+     */
+    @Test
+    void getDealsBatch_EmptyTimes() throws Exception {
+        mockMvc.perform(post("/v1/deals/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"timesOfDay\": []}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_INPUT"));
+    }
+
+    /**
+     * Test case for a batch request whose body is not valid JSON.
+     * Expected: HTTP 400 Bad Request with "INVALID_INPUT" code.
+     *
+     * @throws Exception If an error occurs during the mock MVC request.
+     */
+    @Test
+    void getDealsBatch_UnreadableBody() throws Exception {
+        mockMvc.perform(post("/v1/deals/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"timesOfDay\": ["))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_INPUT"));
+    }
+
     /**
      * Test case for when the 'timeOfDay' parameter is missing.
      * This scenario is handled by Spring's default behavior and
@@ -240,7 +459,7 @@ public class DealControllerTest {
     /**
      * Test case for an unexpected internal server error.
      * This simulates a generic Exception being thrown somewhere in the logic
-     * (e.g., repository or parser throwing an unexpected runtime exception)
+     * (e.g., deal index or parser throwing an unexpected runtime exception)
      * which is caught by the generic handler in GlobalExceptionHandler.
      * Expected: HTTP 500 Internal Server Error with a generic message.
      *
@@ -253,7 +472,7 @@ public class DealControllerTest {
 
         when(dateTimeParser.parseTimeRobustly(timeOfDayParam)).thenReturn(parsedTime);
 
-        when(dealRepository.findActiveDealsAtTime(parsedTime))
+        when(activeDealIndex.findActiveDealsAtTime(parsedTime))
                 .thenThrow(new RuntimeException("Database connection failed"));
 
         mockMvc.perform(get("/v1/deals")
@@ -278,7 +497,7 @@ public class DealControllerTest {
 
         when(dateTimeParser.parseTimeRobustly(timeOfDayParam)).thenReturn(parsedTime);
 
-        when(dealRepository.findActiveDealsAtTime(parsedTime)).thenReturn(Collections.emptyList());
+        when(activeDealIndex.findActiveDealsAtTime(parsedTime)).thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/v1/deals")
                         .param("timeOfDay", timeOfDayParam)
@@ -288,6 +507,359 @@ public class DealControllerTest {
                 .andExpect(jsonPath("$.length()").value(0)); // Expect an empty array
     }
 
+    /**
+     * Test case for a repeated request carrying the ETag of the previous response.
+     * The body is served from the same snapshot, so the ETag still matches.
+     * Expected: HTTP 304 Not Modified with no body.
+     *
+     * @throws Exception If an error occurs during the mock MVC request.
+     */
+    @Test
+    void getDealsByTimeOfDay_NotModified() throws Exception {
+        String timeOfDayParam = "12:00pm";
+        LocalTime parsedTime = LocalTime.of(12, 0);
+
+        when(dateTimeParser.parseTimeRobustly(timeOfDayParam)).thenReturn(parsedTime);
+
+        Restaurant kekou = createSampleRestaurant(
+                102L, "B5713CD0-91BF-40C7-AFC3-7D46D26B00BF", "Kekou",
+                "396 Bridge Road", "Richmond", LocalTime.of(11, 0), LocalTime.of(23, 0)
+        );
+        Deal deal = createSampleDeal(
+                2L, "B5713CD0-0000-40C7-AFC3-7D46D26B00BF", kekou, "Noodle Bowl Special",
+                10.0, true, true, 3, LocalTime.of(11,0), LocalTime.of(23,0)
+        );
+        when(activeDealIndex.findActiveDealsAtTime(parsedTime))
+                .thenReturn(DealTimeline.of(Collections.singletonList(deal)).activeAt(parsedTime));
+
+        String etag = mockMvc.perform(get("/v1/deals")
+                        .param("timeOfDay", timeOfDayParam))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/v1/deals")
+                        .param("timeOfDay", timeOfDayParam)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    /**
+     * Test case for a time at which more deals are active than a snapshot may hold.
+     * Expected: HTTP 200 OK with the same JSON streamed asynchronously, and no ETag.
+     *
+     * @throws Exception If an error occurs during the mock MVC request.
+     */
+    @Test
+    void getDealsByTimeOfDay_StreamsLargeResults() throws Exception {
+        String timeOfDayParam = "12:00pm";
+        LocalTime parsedTime = LocalTime.of(12, 0);
+
+        when(dateTimeParser.parseTimeRobustly(timeOfDayParam)).thenReturn(parsedTime);
+
+        Restaurant kekou = createSampleRestaurant(
+                102L, "B5713CD0-91BF-40C7-AFC3-7D46D26B00BF", "Kekou",
+                "396 Bridge Road", "Richmond", LocalTime.of(11, 0), LocalTime.of(23, 0)
+        );
+        Deal deal1 = createSampleDeal(
+                1L, "B5713CD0-0000-40C7-AFC3-7D46D26B00BF", kekou, "Noodle Bowl Special",
+                10.0, true, true, 3, LocalTime.of(11,0), LocalTime.of(23,0)
+        );
+        Deal deal2 = createSampleDeal(
+                2L, "B5713CD0-1111-40C7-AFC3-7D46D26B00BF", kekou, "Dumpling Special",
+                20.0, false, false, 5, LocalTime.of(11,0), LocalTime.of(14,0)
+        );
+        when(activeDealIndex.findActiveDealsAtTime(parsedTime))
+                .thenReturn(DealTimeline.of(Arrays.asList(deal1, deal2)).activeAt(parsedTime));
+
+        ReflectionTestUtils.setField(dealResponseSnapshotService, "snapshotMaxDeals", 1);
+        try {
+            MvcResult result = mockMvc.perform(get("/v1/deals")
+                            .param("timeOfDay", timeOfDayParam))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist("ETag"))
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andExpect(jsonPath("$.length()").value(2))
+                    .andExpect(jsonPath("$[0].dealObjectId").value("B5713CD0-0000-40C7-AFC3-7D46D26B00BF"))
+                    .andExpect(jsonPath("$[1].dealObjectId").value("B5713CD0-1111-40C7-AFC3-7D46D26B00BF"))
+                    .andExpect(jsonPath("$[1].restaurantOpen").value("11:00AM"))
+                    .andExpect(jsonPath("$[1].qtyLeft").value(5));
+        } finally {
+            ReflectionTestUtils.setField(dealResponseSnapshotService, "snapshotMaxDeals",
+                                         DealResponseSnapshotService.DEFAULT_SNAPSHOT_MAX_DEALS);
+        }
+    }
+
+    /**
+     * Test case for paging with limit and the cursor returned in X-Next-Cursor.
+     * Expected: Deals by discount, highest first; the last page has no X-Next-Cursor.
+     *
+     * @throws Exception If an error occurs during the mock MVC request.
+     */
+    @Test
+    void getDealsByTimeOfDay_Paged() throws Exception {
+        String timeOfDayParam = "12:00pm";
+        when(dateTimeParser.parseTimeRobustly(timeOfDayParam)).thenReturn(LocalTime.of(12, 0));
+
+        Restaurant kekou = createSampleRestaurant(
+                102L, "B5713CD0-91BF-40C7-AFC3-7D46D26B00BF", "Kekou",
+                "396 Bridge Road", "Richmond", LocalTime.of(11, 0), LocalTime.of(23, 0)
+        );
+        Deal deal1 = createSampleDeal(
+                1L, "DEAL-1", kekou, "Noodle Bowl Special", 10.0, true, true, 3, LocalTime.of(11,0), LocalTime.of(23,0)
+        );
+        Deal deal2 = createSampleDeal(
+                2L, "DEAL-2", kekou, "Dumpling Special", 40.0, false, false, 5, LocalTime.of(11,0), LocalTime.of(23,0)
+        );
+        Deal deal3 = createSampleDeal(
+                3L, "DEAL-3", kekou, "Lunch Special", 20.0, true, false, 2, LocalTime.of(11,0), LocalTime.of(23,0)
+        );
+        when(activeDealIndex.current()).thenReturn(DealTimeline.of(Arrays.asList(deal1, deal2, deal3)));
+
+        String cursor = mockMvc.perform(get("/v1/deals")
+                        .param("timeOfDay", timeOfDayParam)
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].dealObjectId").value("DEAL-2"))
+                .andExpect(jsonPath("$[1].dealObjectId").value("DEAL-3"))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                .andReturn().getResponse().getHeader("X-Next-Cursor");
+
+        mockMvc.perform(get("/v1/deals")
+                        .param("timeOfDay", timeOfDayParam)
+                        .param("limit", "2")
+                        .param("after", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].dealObjectId").value("DEAL-1"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    /**
+     * Test case for a page requested as CBOR.
+     * Expected: HTTP 200 OK with the page encoded in CBOR, like the unpaged response, and Vary: Accept.
+     *
+     * @throws Exception If an error occurs during the mock MVC request.
+     */
+    @Test
+    void getDealsByTimeOfDay_PagedCbor() throws Exception {
+        String timeOfDayParam = "12:00pm";
+        when(dateTimeParser.parseTimeRobustly(timeOfDayParam)).thenReturn(LocalTime.of(12, 0));
+
+        Restaurant kekou = createSampleRestaurant(
+                102L, "B5713CD0-91BF-40C7-AFC3-7D46D26B00BF", "Kekou",
+                "396 Bridge Road", "Richmond", LocalTime.of(11, 0), LocalTime.of(23, 0)
+        );
+        Deal deal1 = createSampleDeal(
+                1L, "DEAL-1", kekou, "Noodle Bowl Special", 10.0, true, true, 3, LocalTime.of(11,0), LocalTime.of(23,0)
+        );
+        Deal deal2 = createSampleDeal(
+                2L, "DEAL-2", kekou, "Dumpling Special", 40.0, false, false, 5, LocalTime.of(11,0), LocalTime.of(23,0)
+        );
+        when(activeDealIndex.current()).thenReturn(DealTimeline.of(Arrays.asList(deal1, deal2)));
+
+        MvcResult result = mockMvc.perform(get("/v1/deals")
+                                          .param("timeOfDay", timeOfDayParam)
+                                          .param("limit", "1")
+                                          .header(HttpHeaders.ACCEPT, "application/cbor"))
+                                  .andExpect(status().isOk())
+                                  .andExpect(content().contentType("application/cbor"))
+                                  .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                                  .andExpect(header().exists("X-Next-Cursor"))
+                                  .andReturn();
+
+        JsonNode deals = new ObjectMapper(new CBORFactory()).readTree(result.getResponse().getContentAsByteArray());
+        assertEquals(1, deals.size());
+        assertEquals("DEAL-2", deals.get(0).get("dealObjectId").asText());
+        assertEquals(40.0, deals.get(0).get("discount").asDouble());
+    }
+
+    /**
+     * Test case for filtering and sorting without paging.
+     * Expected: Only the matching deals, in the requested order, streamed without an ETag.
+     *
+     * @throws Exception If an error occurs during the mock MVC request.
+     */
+    @Test
+    void getDealsByTimeOfDay_FilteredAndSorted() throws Exception {
+        String timeOfDayParam = "12:00pm";
+        when(dateTimeParser.parseTimeRobustly(timeOfDayParam)).thenReturn(LocalTime.of(12, 0));
+
+        Restaurant kekou = createSampleRestaurant(
+                102L, "B5713CD0-91BF-40C7-AFC3-7D46D26B00BF", "Kekou",
+                "396 Bridge Road", "Richmond", LocalTime.of(11, 0), LocalTime.of(23, 0)
+        );
+        kekou.setCuisines(List.of("Chinese", "Noodles"));
+        Restaurant abcChicken = createSampleRestaurant(
+                101L, "D80263E8-FD89-2C70-FF6B-D854ADB8DB00", "ABC Chicken",
+                "361 Queen Street", "Melbourne", LocalTime.of(11, 0), LocalTime.of(23, 0)
+        );
+        Deal deal1 = createSampleDeal(
+                1L, "DEAL-1", kekou, "Noodle Bowl Special", 20.0, true, false, 3, LocalTime.of(11,0), LocalTime.of(23,0)
+        );
+        Deal deal2 = createSampleDeal(
+                2L, "DEAL-2", kekou, "Dumpling Special", 40.0, true, false, 5, LocalTime.of(11,0), LocalTime.of(23,0)
+        );
+        Deal takeaway = createSampleDeal(
+                3L, "DEAL-3", kekou, "Takeaway Special", 50.0, false, false, 2, LocalTime.of(11,0), LocalTime.of(23,0)
+        );
+        Deal otherSuburb = createSampleDeal(
+                4L, "DEAL-4", abcChicken, "Chicken Combo Deal", 50.0, true, false, 1, LocalTime.of(11,0), LocalTime.of(23,0)
+        );
+        when(activeDealIndex.current()).thenReturn(DealTimeline.of(Arrays.asList(deal1, deal2, takeaway, otherSuburb)));
+
+        MvcResult result = mockMvc.perform(get("/v1/deals")
+                        .param("timeOfDay", timeOfDayParam)
+                        .param("dineIn", "true")
+                        .param("suburb", "richmond")
+                        .param("cuisines", "noodles,pizza")
+                        .param("sort", "discount"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].dealObjectId").value("DEAL-2"))
+                .andExpect(jsonPath("$[1].dealObjectId").value("DEAL-1"));
+    }
+
+    /**
+     * Test case for a filtered search answered by the database.
+     * Expected: The projected rows reach the client with every column, streamed as they are
+     * with the restaurant times formatted, and the in-memory index is not read.
+     *
+     * @throws Exception If an error occurs during the mock MVC request.
+     */
+    @Test
+    void getDealsByTimeOfDay_FilteredFromDatabase() throws Exception {
+        String timeOfDayParam = "6:00pm";
+        when(dateTimeParser.parseTimeRobustly(timeOfDayParam)).thenReturn(LocalTime.of(18, 0));
+        when(dealRepository.findResponses(any())).thenReturn(List.of(DealResponseDto.fromColumns(
+                "DEA567C5-F64C-3C03-FF00-E3B24909BE95", "Masala Kitchen", "55 Walsh Street", "Lower East",
+                LocalTime.of(15, 0), LocalTime.of(21, 0), "DEAL-7", 30.0, false, false, 4)));
+
+        ReflectionTestUtils.setField(dealSearchService, "source", DealSearchService.DealSearchSource.DATABASE);
+        try {
+            MvcResult result = mockMvc.perform(get("/v1/deals")
+                            .param("timeOfDay", timeOfDayParam)
+                            .param("minDiscount", "25"))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+
+            mockMvc.perform(asyncDispatch(result))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT))
+                    .andExpect(jsonPath("$.length()").value(1))
+                    .andExpect(jsonPath("$[0].restaurantObjectId").value("DEA567C5-F64C-3C03-FF00-E3B24909BE95"))
+                    .andExpect(jsonPath("$[0].restaurantName").value("Masala Kitchen"))
+                    .andExpect(jsonPath("$[0].restaurantAddress1").value("55 Walsh Street"))
+                    .andExpect(jsonPath("$[0].restarantSuburb").value("Lower East"))
+                    .andExpect(jsonPath("$[0].dealObjectId").value("DEAL-7"))
+                    .andExpect(jsonPath("$[0].restaurantOpen").value("3:00PM"))
+                    .andExpect(jsonPath("$[0].restaurantClose").value("9:00PM"))
+                    .andExpect(jsonPath("$[0].discount").value(30.0))
+                    .andExpect(jsonPath("$[0].dineIn").value(false))
+                    .andExpect(jsonPath("$[0].lightning").value(false))
+                    .andExpect(jsonPath("$[0].qtyLeft").value(4));
+            verifyNoInteractions(activeDealIndex);
+        } finally {
+            ReflectionTestUtils.setField(dealSearchService, "source", DealSearchService.DealSearchSource.MEMORY);
+        }
+    }
+
+    /**
+     * Test case for an unknown sort order.
+     * Expected: HTTP 400 Bad Request with "INVALID_INPUT".
+     *
+     * @throws Exception If an error occurs during the mock MVC request.
+     */
+    @Test
+    void getDealsByTimeOfDay_InvalidSort() throws Exception {
+        String timeOfDayParam = "12:00pm";
+        when(dateTimeParser.parseTimeRobustly(timeOfDayParam)).thenReturn(LocalTime.of(12, 0));
+
+        mockMvc.perform(get("/v1/deals")
+                        .param("timeOfDay", timeOfDayParam)
+                        .param("sort", "popularity"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_INPUT"))
+                .andExpect(jsonPath("$.errorMessage").value("The 'sort' parameter must be one of discount, qtyLeft, but was 'popularity'."));
+    }
+
+    /**
+     * Test case for paging parameters that are out of range or malformed.
+     * Expected: HTTP 400 Bad Request with "INVALID_INPUT".
+     *
+     * @throws Exception If an error occurs during the mock MVC request.
+     */
+    @Test
+    void getDealsByTimeOfDay_InvalidPaging() throws Exception {
+        String timeOfDayParam = "12:00pm";
+        when(dateTimeParser.parseTimeRobustly(timeOfDayParam)).thenReturn(LocalTime.of(12, 0));
+        when(activeDealIndex.current()).thenReturn(DealTimeline.empty());
+
+        mockMvc.perform(get("/v1/deals")
+                        .param("timeOfDay", timeOfDayParam)
+                        .param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_INPUT"))
+                .andExpect(jsonPath("$.errorMessage").value("The 'limit' parameter must be between 1 and 100, but was 0."));
+
+        mockMvc.perform(get("/v1/deals")
+                        .param("timeOfDay", timeOfDayParam)
+                        .param("after", "not a cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_INPUT"));
+    }
+
+    /**
+     * Test case for claiming a deal with units left.
+     * Expected: HTTP 200 OK with the quantity left after the claim.
+     *
+     * @throws Exception If an error occurs during the mock MVC request.
+     */
+    @Test
+    void claimDeal_Success() throws Exception {
+        when(dealClaimService.claim("DEAL-1")).thenReturn(new DealClaimResponse("DEAL-1", 4));
+
+        mockMvc.perform(post("/v1/deals/DEAL-1/claim"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dealObjectId").value("DEAL-1"))
+                .andExpect(jsonPath("$.qtyLeft").value(4));
+    }
+
+    /**
+     * Test case for claiming a sold-out deal and an unknown deal.
+     * Expected: HTTP 409 Conflict with "DEAL_SOLD_OUT" and HTTP 404 Not Found with "DEAL_NOT_FOUND".
+     *
+     * @throws Exception If an error occurs during the mock MVC request.
+     */
+    @Test
+    void claimDeal_SoldOutOrUnknown() throws Exception {
+        when(dealClaimService.claim("DEAL-1")).thenThrow(new DealSoldOutException("The deal 'DEAL-1' is sold out."));
+        when(dealClaimService.claim("NOPE")).thenThrow(new DealNotFoundException("No deal with id 'NOPE' was found."));
+
+        mockMvc.perform(post("/v1/deals/DEAL-1/claim"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errorCode").value("DEAL_SOLD_OUT"))
+                .andExpect(jsonPath("$.errorMessage").value("The deal 'DEAL-1' is sold out."));
+
+        mockMvc.perform(post("/v1/deals/NOPE/claim"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.errorCode").value("DEAL_NOT_FOUND"));
+    }
+
     /**
      * Test case for the /peak-time endpoint when a peak time window is successfully calculated.
      * Expected: HTTP 200 OK and a PeakTimeResponse with start and end times.
@@ -301,7 +873,7 @@ public class DealControllerTest {
         PeakTimeCalculatorService.PeakTimeWindow peakWindow =
                 new PeakTimeCalculatorService.PeakTimeWindow(peakStart, peakEnd);
 
-        when(peakTimeCalculatorService.calculatePeakTimeWindow()).thenReturn(peakWindow);
+        when(peakTimeCalculatorService.calculatePeakTimeWindow(30)).thenReturn(peakWindow);
 
         mockMvc.perform(get("/v1/peak-time")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -310,6 +882,28 @@ public class DealControllerTest {
                 .andExpect(jsonPath("$.peakTimeEnd").value(PEAK_TIME_FORMATTER.format(peakEnd)));
     }
 
+    /**
+     * Test case for the /peak-time endpoint when the client accepts CBOR.
+     * Expected: HTTP 200 OK and a CBOR PeakTimeResponse.
+     *
+     * @throws Exception If an error occurs during the mock MVC request.
+     */
+    @Test
+    void getPeakDealTime_Cbor() throws Exception {
+        when(peakTimeCalculatorService.calculatePeakTimeWindow(30)).thenReturn(
+                new PeakTimeCalculatorService.PeakTimeWindow(LocalTime.of(12, 0), LocalTime.of(13, 0)));
+
+        MvcResult result = mockMvc.perform(get("/v1/peak-time")
+                                          .accept(MediaType.APPLICATION_CBOR))
+                                  .andExpect(status().isOk())
+                                  .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                                  .andReturn();
+
+        JsonNode peakTime = new ObjectMapper(new CBORFactory()).readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("12:00", peakTime.get("peakTimeStart").asText());
+        assertEquals("13:00", peakTime.get("peakTimeEnd").asText());
+    }
+
     /**
      * Test case for the /peak-time endpoint when no peak time window can be determined.
      * This occurs if the service returns a PeakTimeWindow with null start time.
@@ -322,7 +916,7 @@ public class DealControllerTest {
         PeakTimeCalculatorService.PeakTimeWindow peakWindow =
                 new PeakTimeCalculatorService.PeakTimeWindow(null, null);
 
-        when(peakTimeCalculatorService.calculatePeakTimeWindow()).thenReturn(peakWindow);
+        when(peakTimeCalculatorService.calculatePeakTimeWindow(30)).thenReturn(peakWindow);
 
         mockMvc.perform(get("/v1/peak-time")
                         .contentType(MediaType.APPLICATION_JSON))
@@ -339,7 +933,7 @@ public class DealControllerTest {
      */
     @Test
     void getPeakDealTime_InternalServerError() throws Exception {
-        when(peakTimeCalculatorService.calculatePeakTimeWindow())
+        when(peakTimeCalculatorService.calculatePeakTimeWindow(30))
                 .thenThrow(new RuntimeException("Simulated internal error during peak time calculation"));
 
         mockMvc.perform(get("/v1/peak-time")
@@ -348,4 +942,76 @@ public class DealControllerTest {
                 .andExpect(jsonPath("$.errorCode").value("INTERNAL_SERVER_ERROR"))
                 .andExpect(jsonPath("$.errorMessage").value("An unexpected error occurred. Please try again later."));
     }
-}
\ No newline at end of file
+
+    /**
+     * Test case for the /peak-time endpoint with an explicit slot granularity.
+     * Expected: HTTP 200 OK with the window calculated at the requested granularity.
+     *
+     * @throws Exception If an error occurs during the mock MVC request.
+     */
+    @Test
+    void getPeakDealTime_WithGranularity() throws Exception {
+        LocalTime peakStart = LocalTime.of(12, 5);
+        LocalTime peakEnd = LocalTime.of(12, 20);
+        when(peakTimeCalculatorService.calculatePeakTimeWindow(5))
+                .thenReturn(new PeakTimeCalculatorService.PeakTimeWindow(peakStart, peakEnd));
+
+        mockMvc.perform(get("/v1/peak-time")
+                        .param("granularity", "5")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.peakTimeStart").value("12:05"))
+                .andExpect(jsonPath("$.peakTimeEnd").value("12:20"));
+    }
+
+    /**
+     * Test case for the /peak-time endpoint with a non-numeric granularity.
+     * Expected: HTTP 400 Bad Request with the TYPE_MISMATCH error code.
+     *
+     * @throws Exception If an error occurs during the mock MVC request.
+     */
+    @Test
+    void getPeakDealTime_NonNumericGranularity() throws Exception {
+        mockMvc.perform(get("/v1/peak-time")
+                        .param("granularity", "half-hour")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("TYPE_MISMATCH"));
+    }
+
+    /**
+     * Test case for the /peak-time/histogram endpoint with the busiest windows requested.
+     * Expected: HTTP 200 OK with one entry per slot and the requested windows.
+     *
+     * @throws Exception If an error occurs during the mock MVC request.
+     */
+    @Test
+    void getPeakTimeHistogram_Success() throws Exception {
+        int[] slotDealCounts = new int[24];
+        slotDealCounts[12] = 2;
+        slotDealCounts[13] = 1;
+        PeakTimeCalculatorService.PeakTimeHistogram histogram = new PeakTimeCalculatorService.PeakTimeHistogram(
+                60, slotDealCounts, Arrays.asList(
+                        new PeakTimeCalculatorService.PeakTimeWindow(LocalTime.of(12, 0), LocalTime.of(13, 0), 2),
+                        new PeakTimeCalculatorService.PeakTimeWindow(LocalTime.of(13, 0), LocalTime.of(14, 0), 1)));
+
+        when(peakTimeCalculatorService.calculateHistogram(60, 2)).thenReturn(histogram);
+
+        mockMvc.perform(get("/v1/peak-time/histogram")
+                        .param("granularity", "60")
+                        .param("top", "2")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularityMinutes").value(60))
+                .andExpect(jsonPath("$.slots.length()").value(24))
+                .andExpect(jsonPath("$.slots[12].slotStart").value("12:00"))
+                .andExpect(jsonPath("$.slots[12].slotEnd").value("13:00"))
+                .andExpect(jsonPath("$.slots[12].activeDeals").value(2))
+                .andExpect(jsonPath("$.slots[23].slotEnd").value("00:00"))
+                .andExpect(jsonPath("$.peakWindows.length()").value(2))
+                .andExpect(jsonPath("$.peakWindows[0].peakTimeStart").value("12:00"))
+                .andExpect(jsonPath("$.peakWindows[0].peakTimeEnd").value("13:00"))
+                .andExpect(jsonPath("$.peakWindows[0].activeDeals").value(2))
+                .andExpect(jsonPath("$.peakWindows[1].peakTimeStart").value("13:00"));
+    }
+}
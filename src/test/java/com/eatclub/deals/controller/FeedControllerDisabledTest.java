@@ -0,0 +1,52 @@
+package com.eatclub.deals.controller;
+
+import com.eatclub.deals.exception.GlobalExceptionHandler;
+import com.eatclub.deals.service.DealFeedIngestionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = FeedController.class)
+@Import(GlobalExceptionHandler.class)
+public class FeedControllerDisabledTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @MockBean
+    private DealFeedIngestionService dealFeedIngestionService;
+
+    /**
+     * Test case for a feed posted when no admin token is configured.
+     * Expected: FeedController is not registered, so HTTP 404 Not Found, and nothing is ingested.
+     *
+     * @throws Exception If an error occurs during the mock MVC request.
+     */
+    @Test
+    void ingestFeed_NotServedWithoutConfiguredToken() throws Exception {
+        assertTrue(applicationContext.getBeansOfType(FeedController.class).isEmpty());
+        mockMvc.perform(post("/v1/feed")
+                        .header(FeedController.ADMIN_TOKEN_HEADER, "")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"restaurants\":[]}"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.errorCode").value("NOT_FOUND"));
+        verify(dealFeedIngestionService, never()).ingest(any());
+    }
+}
@@ -0,0 +1,83 @@
+package com.eatclub.deals.controller;
+
+import com.eatclub.deals.exception.GlobalExceptionHandler;
+import com.eatclub.deals.model.FeedIngestionResponse;
+import com.eatclub.deals.service.DealFeedIngestionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = FeedController.class, properties = "deals.feed.admin-token=secret")
+@Import(GlobalExceptionHandler.class)
+public class FeedControllerTest {
+
+    private static final String FEED = "{\"restaurants\":[]}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DealFeedIngestionService dealFeedIngestionService;
+
+    /**
+     * Test case for a feed posted with the admin token.
+     * Expected: HTTP 200 OK with the ingestion counts.
+     *
+     * @throws Exception If an error occurs during the mock MVC request.
+     */
+    @Test
+    void ingestFeed_WithToken() throws Exception {
+        when(dealFeedIngestionService.ingest(any())).thenReturn(new FeedIngestionResponse(1, 0, 0, 0, 2, 0, 0, 0));
+
+        mockMvc.perform(post("/v1/feed")
+                        .header(FeedController.ADMIN_TOKEN_HEADER, "secret")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(FEED))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dealsInserted").value(2));
+    }
+
+    /**
+     * Test case for a feed posted without the admin token.
+     * Expected: HTTP 401 Unauthorized with "UNAUTHORIZED" code, and nothing is ingested.
+     *
+     * @throws Exception If an error occurs during the mock MVC request.
+     */
+    @Test
+    void ingestFeed_WithoutToken() throws Exception {
+        mockMvc.perform(post("/v1/feed")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(FEED))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.errorCode").value("UNAUTHORIZED"));
+        verify(dealFeedIngestionService, never()).ingest(any());
+    }
+
+    /**
+     * Test case for a feed posted with the wrong admin token.
+     * Expected: HTTP 401 Unauthorized, and nothing is ingested.
+     *
+     * @throws Exception If an error occurs during the mock MVC request.
+     */
+    @Test
+    void ingestFeed_WrongToken() throws Exception {
+        mockMvc.perform(post("/v1/feed")
+                        .header(FeedController.ADMIN_TOKEN_HEADER, "guess")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(FEED))
+                .andExpect(status().isUnauthorized());
+        verify(dealFeedIngestionService, never()).ingest(any());
+    }
+}
@@ -0,0 +1,41 @@
+package com.eatclub.deals.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DealWireFormatTest {
+
+    /**
+     * Test case: Accept headers naming one binary format.
+     * Expected: That format.
+     */
+    @Test
+    void fromAcceptHeader_BinaryFormats() {
+        assertEquals(DealWireFormat.SMILE, DealWireFormat.fromAcceptHeader("application/x-jackson-smile"));
+        assertEquals(DealWireFormat.CBOR, DealWireFormat.fromAcceptHeader("application/json;q=0.5, application/cbor"));
+    }
+
+    /**
+     * Test case: Missing, wildcard, unknown and unparseable Accept headers.
+     * Expected: JSON.
+     */
+    @Test
+    void fromAcceptHeader_DefaultsToJson() {
+        assertEquals(DealWireFormat.JSON, DealWireFormat.fromAcceptHeader(null));
+        assertEquals(DealWireFormat.JSON, DealWireFormat.fromAcceptHeader("*/*"));
+        assertEquals(DealWireFormat.JSON, DealWireFormat.fromAcceptHeader("text/html"));
+        assertEquals(DealWireFormat.JSON, DealWireFormat.fromAcceptHeader("not a media type"));
+    }
+
+    /**
+     * Test case: A format refused with q=0.
+     * Expected: The format is not picked.
+     */
+    @Test
+    void fromAcceptHeader_IgnoresQualityZero() {
+        assertEquals(DealWireFormat.JSON, DealWireFormat.fromAcceptHeader("application/cbor;q=0"));
+        assertEquals(DealWireFormat.SMILE,
+                     DealWireFormat.fromAcceptHeader("application/cbor;q=0, application/x-jackson-smile;q=0.1"));
+    }
+}
@@ -0,0 +1,117 @@
+package com.eatclub.deals.service;
+
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.entity.DealCatalogChangeListener;
+import com.eatclub.deals.exception.DealNotFoundException;
+import com.eatclub.deals.exception.DealSoldOutException;
+import com.eatclub.deals.model.DealClaimResponse;
+import com.eatclub.deals.repository.DealRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DealClaimServiceTest {
+
+    @Mock
+    private DealRepository dealRepository;
+
+    @Mock
+    private DealCatalogChangeListener dealCatalogChangeListener;
+
+    @Mock
+    private DealInventory dealInventory;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DealClaimService dealClaimService;
+
+    @BeforeEach
+    void setUp() {
+        dealClaimService = new DealClaimService(dealRepository, dealCatalogChangeListener, dealInventory,
+                                                transactionManager);
+    }
+
+    private Deal createDeal(int qtyLeft, boolean deleted) {
+        Deal deal = new Deal();
+        deal.setId(1L);
+        deal.setDealObjectId("d1");
+        deal.setQtyLeft(qtyLeft);
+        deal.setIsDeleted(deleted);
+        return deal;
+    }
+
+    /**
+     * Test case: The conditional update takes a unit.
+     * Expected: The quantity read back is returned and the change is recorded for the in-memory views.
+     */
+    @Test
+    void claim_TakesOneUnit() {
+        Deal claimed = createDeal(4, false);
+        when(dealRepository.decrementQtyLeft(eq("d1"), any())).thenReturn(1);
+        when(dealRepository.findByDealObjectId("d1")).thenReturn(Optional.of(claimed));
+
+        DealClaimResponse response = dealClaimService.claim("d1");
+
+        assertEquals(new DealClaimResponse("d1", 4), response);
+        verify(dealCatalogChangeListener).onBulkUpdate(claimed);
+        verify(transactionManager).commit(any());
+    }
+
+    /**
+     * Test case: The conditional update finds no unit left.
+     * Expected: DealSoldOutException and nothing recorded.
+     */
+    @Test
+    void claim_SoldOut() {
+        when(dealRepository.decrementQtyLeft(eq("d1"), any())).thenReturn(0);
+        when(dealRepository.findByDealObjectId("d1")).thenReturn(Optional.of(createDeal(0, false)));
+
+        assertThrows(DealSoldOutException.class, () -> dealClaimService.claim("d1"));
+        verify(dealCatalogChangeListener, never()).onBulkUpdate(any());
+    }
+
+    /**
+     * Test case: The deal is unknown or soft-deleted.
+     * Expected: DealNotFoundException.
+     */
+    @Test
+    void claim_UnknownOrDeleted() {
+        when(dealRepository.decrementQtyLeft(any(), any())).thenReturn(0);
+        when(dealRepository.findByDealObjectId("nope")).thenReturn(Optional.empty());
+        when(dealRepository.findByDealObjectId("d1")).thenReturn(Optional.of(createDeal(3, true)));
+
+        assertThrows(DealNotFoundException.class, () -> dealClaimService.claim("nope"));
+        assertThrows(DealNotFoundException.class, () -> dealClaimService.claim("d1"));
+    }
+
+    /**
+     * Test case: Claims are confirmed in memory.
+     * Expected: The claim is delegated to the DealInventory, and neither the database
+     * nor a transaction is touched.
+     */
+    @Test
+    void claim_FromMemory() {
+        ReflectionTestUtils.setField(dealClaimService, "source", DealClaimService.ClaimSource.MEMORY);
+        when(dealInventory.claim("d1")).thenReturn(new DealClaimResponse("d1", 7));
+
+        assertEquals(new DealClaimResponse("d1", 7), dealClaimService.claim("d1"));
+        verify(dealRepository, never()).decrementQtyLeft(any(), any());
+        verify(transactionManager, never()).getTransaction(any());
+    }
+}
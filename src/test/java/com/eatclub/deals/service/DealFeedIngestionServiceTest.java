@@ -0,0 +1,241 @@
+package com.eatclub.deals.service;
+
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.entity.Restaurant;
+import com.eatclub.deals.exception.InvalidInputException;
+import com.eatclub.deals.model.FeedIngestionResponse;
+import com.eatclub.deals.repository.DealRepository;
+import com.eatclub.deals.repository.RestaurantRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DealFeedIngestionServiceTest {
+
+    private static final String FEED = "{\"restaurants\":[{"
+            + "\"objectId\":\"r1\",\"name\":\"Masala Theory\",\"address1\":\"1 Lygon St\",\"suburb\":\"Carlton\","
+            + "\"cuisines\":[\"Indian\",\" Curry\"],\"imageLink\":\"https://example.com/r1.jpg\","
+            + "\"open\":\"3:00pm\",\"close\":\"9:00pm\",\"deals\":["
+            + "{\"objectId\":\"d1\",\"discount\":\"50\",\"dineIn\":\"true\",\"lightning\":\"false\",\"qtyLeft\":\"5\"},"
+            + "{\"objectId\":\"d3\",\"discount\":\"20\",\"dineIn\":\"false\",\"lightning\":\"true\",\"qtyLeft\":\"2\","
+            + "\"start\":\"6:00pm\",\"end\":\"8:00pm\"}]}]}";
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+
+    @Mock
+    private DealRepository dealRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private DealFeedIngestionService dealFeedIngestionService;
+
+    private Restaurant restaurant;
+
+    @BeforeEach
+    void setUp() {
+        dealFeedIngestionService = new DealFeedIngestionService(
+                restaurantRepository, dealRepository, entityManager, new ObjectMapper(), 500);
+
+        restaurant = new Restaurant();
+        restaurant.setId(1L);
+        restaurant.setRestaurantObjectId("r1");
+        restaurant.setRestaurantName("Masala Theory");
+        restaurant.setRestaurantAddress1("1 Lygon St");
+        restaurant.setRestarantSuburb("Carlton");
+        restaurant.setCuisines(new ArrayList<>(List.of("Indian", "Curry")));
+        restaurant.setImageLink("https://example.com/r1.jpg");
+        restaurant.setOpenTime(LocalTime.of(15, 0));
+        restaurant.setCloseTime(LocalTime.of(21, 0));
+        restaurant.setIsDeleted(false);
+    }
+
+    private Deal createDeal(Long id, String dealObjectId, double discount, boolean dineIn, boolean lightning,
+                            int qtyLeft, LocalTime startTime, LocalTime endTime) {
+        Deal deal = new Deal();
+        deal.setId(id);
+        deal.setDealObjectId(dealObjectId);
+        deal.setRestaurant(restaurant);
+        deal.setRestaurantNameDenormalized("Masala Theory");
+        deal.setDiscount(discount);
+        deal.setDineIn(dineIn);
+        deal.setLightning(lightning);
+        deal.setQtyLeft(qtyLeft);
+        deal.setStartTime(startTime);
+        deal.setEndTime(endTime);
+        deal.setIsDeleted(false);
+        return deal;
+    }
+
+    private InputStream feed(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Test case: The feed matches what is stored.
+     * Expected: Everything is reported unchanged and nothing is saved or deleted.
+     */
+    @Test
+    void ingest_UnchangedFeedWritesNothing() {
+        Deal d1 = createDeal(1L, "d1", 50.0, true, false, 5, LocalTime.of(15, 0), LocalTime.of(21, 0));
+        Deal d3 = createDeal(3L, "d3", 20.0, false, true, 2, LocalTime.of(18, 0), LocalTime.of(20, 0));
+        when(restaurantRepository.findByRestaurantObjectIdIn(List.of("r1"))).thenReturn(List.of(restaurant));
+        when(dealRepository.findByDealObjectIdIn(List.of("d1", "d3"))).thenReturn(List.of(d1, d3));
+        when(restaurantRepository.findValidRestaurantObjectIds()).thenReturn(List.of("r1"));
+        when(dealRepository.findValidDealObjectIds()).thenReturn(List.of("d1", "d3"));
+
+        FeedIngestionResponse response = dealFeedIngestionService.ingest(feed(FEED));
+
+        assertEquals(new FeedIngestionResponse(0, 0, 1, 0, 0, 0, 2, 0), response);
+        verify(restaurantRepository, never()).save(any());
+        verify(dealRepository, never()).save(any());
+    }
+
+    /**
+     * Test case: One stored deal changed, one is new and one is no longer in the feed.
+     * Expected: Only the changed deal is updated, the new one is inserted and the missing one is soft-deleted.
+     */
+    @Test
+    void ingest_ChangedNewAndMissingDeals() {
+        Deal d1 = createDeal(1L, "d1", 40.0, true, false, 5, LocalTime.of(15, 0), LocalTime.of(21, 0));
+        Deal d2 = createDeal(2L, "d2", 30.0, true, false, 1, LocalTime.of(12, 0), LocalTime.of(14, 0));
+        when(restaurantRepository.findByRestaurantObjectIdIn(List.of("r1"))).thenReturn(List.of(restaurant));
+        when(dealRepository.findByDealObjectIdIn(List.of("d1", "d3"))).thenReturn(List.of(d1));
+        when(dealRepository.findByDealObjectIdIn(List.of("d2"))).thenReturn(List.of(d2));
+        when(restaurantRepository.findValidRestaurantObjectIds()).thenReturn(List.of("r1"));
+        when(dealRepository.findValidDealObjectIds()).thenReturn(List.of("d1", "d2"));
+
+        FeedIngestionResponse response = dealFeedIngestionService.ingest(feed(FEED));
+
+        assertEquals(new FeedIngestionResponse(0, 0, 1, 0, 1, 1, 0, 1), response);
+        assertEquals(50.0, d1.getDiscount());
+        assertTrue(d2.getIsDeleted());
+        verify(dealRepository).save(any(Deal.class));
+        verify(restaurantRepository, never()).save(any());
+    }
+
+    /**
+     * Test case: A restaurant that is not stored yet.
+     * Expected: The restaurant and its deals are inserted, the deals default to the restaurant's hours.
+     */
+    @Test
+    void ingest_NewRestaurantIsInserted() {
+        when(restaurantRepository.findByRestaurantObjectIdIn(List.of("r1"))).thenReturn(List.of());
+        when(dealRepository.findByDealObjectIdIn(List.of("d1", "d3"))).thenReturn(List.of());
+        when(restaurantRepository.save(any(Restaurant.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        FeedIngestionResponse response = dealFeedIngestionService.ingest(feed(FEED));
+
+        assertEquals(new FeedIngestionResponse(1, 0, 0, 0, 2, 0, 0, 0), response);
+        verify(dealRepository, times(2)).save(any(Deal.class));
+    }
+
+    /**
+     * Test case: The same feed is posted again after 2 of d1's 5 units were claimed.
+     * Expected: d1 keeps its 3 units left and is reported unchanged.
+     */
+    @Test
+    void ingest_RepostedFeedKeepsClaimedUnits() {
+        Deal d1 = createDeal(1L, "d1", 50.0, true, false, 3, LocalTime.of(15, 0), LocalTime.of(21, 0));
+        d1.setQtyClaimed(2);
+        Deal d3 = createDeal(3L, "d3", 20.0, false, true, 2, LocalTime.of(18, 0), LocalTime.of(20, 0));
+        when(restaurantRepository.findByRestaurantObjectIdIn(List.of("r1"))).thenReturn(List.of(restaurant));
+        when(dealRepository.findByDealObjectIdIn(List.of("d1", "d3"))).thenReturn(List.of(d1, d3));
+        when(restaurantRepository.findValidRestaurantObjectIds()).thenReturn(List.of("r1"));
+        when(dealRepository.findValidDealObjectIds()).thenReturn(List.of("d1", "d3"));
+
+        FeedIngestionResponse response = dealFeedIngestionService.ingest(feed(FEED));
+
+        assertEquals(new FeedIngestionResponse(0, 0, 1, 0, 0, 0, 2, 0), response);
+        assertEquals(3, d1.getQtyLeft());
+    }
+
+    /**
+     * Test case: A new deal appears twice in the same batch.
+     * Expected: It is inserted once; the second occurrence updates the inserted deal.
+     */
+    @Test
+    void ingest_DuplicateNewDealIsInsertedOnce() {
+        String feed = "{\"restaurants\":[{"
+                + "\"objectId\":\"r1\",\"name\":\"Masala Theory\",\"address1\":\"1 Lygon St\",\"suburb\":\"Carlton\","
+                + "\"cuisines\":[\"Indian\",\"Curry\"],\"imageLink\":\"https://example.com/r1.jpg\","
+                + "\"open\":\"3:00pm\",\"close\":\"9:00pm\",\"deals\":["
+                + "{\"objectId\":\"d1\",\"discount\":\"50\",\"dineIn\":\"true\",\"lightning\":\"false\",\"qtyLeft\":\"5\"},"
+                + "{\"objectId\":\"d1\",\"discount\":\"40\",\"dineIn\":\"true\",\"lightning\":\"false\",\"qtyLeft\":\"5\"}]}]}";
+        when(restaurantRepository.findByRestaurantObjectIdIn(List.of("r1"))).thenReturn(List.of(restaurant));
+        when(dealRepository.findByDealObjectIdIn(List.of("d1", "d1"))).thenReturn(List.of());
+        when(restaurantRepository.findValidRestaurantObjectIds()).thenReturn(List.of("r1"));
+
+        FeedIngestionResponse response = dealFeedIngestionService.ingest(feed(feed));
+
+        assertEquals(new FeedIngestionResponse(0, 0, 1, 0, 1, 1, 0, 0), response);
+        verify(dealRepository, times(1)).save(any(Deal.class));
+    }
+
+    /**
+     * Test case: The feed has an empty "restaurants" array.
+     * Expected: InvalidInputException, and nothing is deleted.
+     */
+    @Test
+    void ingest_EmptyFeedIsRejected() {
+        assertThrows(InvalidInputException.class,
+                () -> dealFeedIngestionService.ingest(feed("{\"restaurants\":[]}")));
+
+        verify(dealRepository, never()).findValidDealObjectIds();
+        verify(restaurantRepository, never()).findValidRestaurantObjectIds();
+    }
+
+    /**
+     * Test case: The feed lacks 3 of the 5 stored deals, more than the default share of one half.
+     * Expected: InvalidInputException, and no deal is soft-deleted.
+     */
+    @Test
+    void ingest_TooManyMissingDealsIsRejected() {
+        Deal d1 = createDeal(1L, "d1", 50.0, true, false, 5, LocalTime.of(15, 0), LocalTime.of(21, 0));
+        Deal d3 = createDeal(3L, "d3", 20.0, false, true, 2, LocalTime.of(18, 0), LocalTime.of(20, 0));
+        when(restaurantRepository.findByRestaurantObjectIdIn(List.of("r1"))).thenReturn(List.of(restaurant));
+        when(dealRepository.findByDealObjectIdIn(List.of("d1", "d3"))).thenReturn(List.of(d1, d3));
+        when(dealRepository.findValidDealObjectIds()).thenReturn(List.of("d1", "d2", "d3", "d4", "d5"));
+
+        InvalidInputException exception = assertThrows(InvalidInputException.class,
+                () -> dealFeedIngestionService.ingest(feed(FEED)));
+
+        assertTrue(exception.getMessage().contains("3 of the 5 stored deals"));
+        verify(dealRepository, never()).findByDealObjectIdIn(List.of("d2", "d4", "d5"));
+    }
+
+    /**
+     * Test case: The feed has no "restaurants" array.
+     * Expected: InvalidInputException, and nothing is deleted.
+     */
+    @Test
+    void ingest_MalformedFeed() {
+        InvalidInputException exception = assertThrows(InvalidInputException.class,
+                () -> dealFeedIngestionService.ingest(feed("{\"deals\":[]}")));
+
+        assertTrue(exception.getMessage().contains("restaurants"));
+        verify(dealRepository, never()).findValidDealObjectIds();
+    }
+}
@@ -0,0 +1,215 @@
+package com.eatclub.deals.service;
+
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.entity.DealCatalogChangeListener;
+import com.eatclub.deals.entity.DealCatalogChangedEvent;
+import com.eatclub.deals.entity.DealCatalogChangedEvent.DealChange;
+import com.eatclub.deals.exception.DealNotFoundException;
+import com.eatclub.deals.exception.DealSoldOutException;
+import com.eatclub.deals.model.DealClaimResponse;
+import com.eatclub.deals.repository.DealRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class DealInventoryTest {
+
+    @Mock
+    private DealRepository dealRepository;
+
+    @Mock
+    private DealCatalogChangeListener dealCatalogChangeListener;
+
+    private DealInventory dealInventory;
+
+    @BeforeEach
+    void setUp() {
+        dealInventory = new DealInventory(dealRepository, dealCatalogChangeListener, new NoOpTransactionManager());
+    }
+
+    private Deal createDeal(int qtyLeft) {
+        Deal deal = new Deal();
+        deal.setId(1L);
+        deal.setDealObjectId("d1");
+        deal.setQtyLeft(qtyLeft);
+        deal.setIsDeleted(false);
+        return deal;
+    }
+
+    /**
+     * Test case: A deal with 2 units is claimed 3 times.
+     * Expected: The first two claims succeed from memory, the third is sold out,
+     * and the deal is read from the database only once.
+     */
+    @Test
+    void claim_SellsOutAtZero() {
+        when(dealRepository.findByDealObjectId("d1")).thenReturn(Optional.of(createDeal(2)));
+
+        assertEquals(new DealClaimResponse("d1", 1), dealInventory.claim("d1"));
+        assertEquals(new DealClaimResponse("d1", 0), dealInventory.claim("d1"));
+        assertThrows(DealSoldOutException.class, () -> dealInventory.claim("d1"));
+
+        verify(dealRepository, times(1)).findByDealObjectId("d1");
+        verify(dealRepository, never()).decrementQtyLeftBy(anyLong(), anyInt(), any());
+    }
+
+    /**
+     * Test case: The deal is unknown.
+     * Expected: DealNotFoundException and nothing held.
+     */
+    @Test
+    void claim_Unknown() {
+        when(dealRepository.findByDealObjectId("nope")).thenReturn(Optional.empty());
+
+        assertThrows(DealNotFoundException.class, () -> dealInventory.claim("nope"));
+        assertEquals(0, dealInventory.getHeldDealCount());
+    }
+
+    /**
+     * Test case: 3 claims, then two flushes.
+     * Expected: The first flush subtracts 3 units in one update and records the deal;
+     * the second has nothing left to write.
+     */
+    @Test
+    void flush_WritesUnitsTakenOnce() {
+        Deal deal = createDeal(10);
+        when(dealRepository.findByDealObjectId("d1")).thenReturn(Optional.of(deal));
+        when(dealRepository.findAllById(List.of(1L))).thenReturn(List.of(deal));
+
+        dealInventory.claim("d1");
+        dealInventory.claim("d1");
+        dealInventory.claim("d1");
+        dealInventory.flush();
+        dealInventory.flush();
+
+        verify(dealRepository, times(1)).decrementQtyLeftBy(eq(1L), eq(3), any());
+        verify(dealCatalogChangeListener, times(1)).onBulkUpdate(deal);
+    }
+
+    /**
+     * Test case: The change event published by the inventory's own flush reaches the inventory.
+     * Expected: The stock stays held.
+     */
+    @Test
+    void flush_IgnoresOwnChangeEvent() {
+        Deal deal = createDeal(10);
+        when(dealRepository.findByDealObjectId("d1")).thenReturn(Optional.of(deal));
+        when(dealRepository.findAllById(List.of(1L))).thenReturn(List.of(deal));
+        doAnswer(invocation -> {
+            dealInventory.onCatalogChanged(new DealCatalogChangedEvent(List.of(DealChange.of(deal, false)), false));
+            return null;
+        }).when(dealCatalogChangeListener).onBulkUpdate(deal);
+
+        dealInventory.claim("d1");
+        dealInventory.flush();
+
+        assertEquals(1, dealInventory.getHeldDealCount());
+    }
+
+    /**
+     * Test case: Another transaction changes a held deal after a claim.
+     * Expected: The claim is written, the stock is dropped, and the next claim reloads the deal.
+     */
+    @Test
+    void onCatalogChanged_RetiresChangedStock() {
+        Deal deal = createDeal(5);
+        when(dealRepository.findByDealObjectId("d1")).thenReturn(Optional.of(deal));
+        when(dealRepository.findAllById(List.of(1L))).thenReturn(List.of(deal));
+
+        dealInventory.claim("d1");
+        dealInventory.onCatalogChanged(new DealCatalogChangedEvent(List.of(DealChange.of(deal, false)), false));
+
+        verify(dealRepository).decrementQtyLeftBy(eq(1L), eq(1), any());
+        assertEquals(0, dealInventory.getHeldDealCount());
+
+        dealInventory.claim("d1");
+        verify(dealRepository, times(2)).findByDealObjectId("d1");
+    }
+
+    /**
+     * Test case: 8 threads make 4000 claims on a deal with 1000 units.
+     * Expected: Exactly 1000 claims succeed and a flush subtracts exactly 1000 units.
+     */
+    @Test
+    void claim_ConcurrentNeverOversells() throws Exception {
+        Deal deal = createDeal(1000);
+        when(dealRepository.findByDealObjectId("d1")).thenReturn(Optional.of(deal));
+        when(dealRepository.findAllById(List.of(1L))).thenReturn(List.of(deal));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            results.add(executor.submit(() -> {
+                int claimed = 0;
+                for (int i = 0; i < 500; i++) {
+                    try {
+                        dealInventory.claim("d1");
+                        claimed++;
+                    } catch (DealSoldOutException e) {
+                        // Sold out; keep trying like a real client would.
+                    }
+                }
+                return claimed;
+            }));
+        }
+        int claimed = 0;
+        for (Future<Integer> result : results) {
+            claimed += result.get();
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1000, claimed);
+        dealInventory.flush();
+        verify(dealRepository).decrementQtyLeftBy(eq(1L), eq(1000), any());
+    }
+
+    /**
+     * Runs transaction synchronizations without a resource, so afterCommit callbacks fire.
+     */
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
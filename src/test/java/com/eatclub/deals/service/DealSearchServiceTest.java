@@ -0,0 +1,107 @@
+package com.eatclub.deals.service;
+
+import com.eatclub.deals.dto.DealFilter;
+import com.eatclub.deals.dto.DealResponseDto;
+import com.eatclub.deals.dto.DealSort;
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.repository.DealRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Searches with deals.search.source=database against the local profile's H2 database,
+ * loaded with the challenge data, checked against the order the ActiveDealIndex gives in memory.
+ */
+@SpringBootTest(properties = "deals.search.source=database")
+class DealSearchServiceTest {
+
+    private static final LocalTime QUERY_TIME = LocalTime.of(19, 0);
+
+    @Autowired
+    private DealSearchService dealSearchService;
+
+    @Autowired
+    private ActiveDealIndex activeDealIndex;
+
+    @Autowired
+    private DealRepository dealRepository;
+
+    private List<String> inMemoryOrder(DealSort sort) {
+        return activeDealIndex.refresh().searchAt(QUERY_TIME, DealFilter.none(), sort).stream()
+                              .map(Deal::getDealObjectId)
+                              .toList();
+    }
+
+    private static List<String> dealObjectIds(List<DealResponseDto> responses) {
+        return responses.stream().map(DealResponseDto::getDealObjectId).toList();
+    }
+
+    /**
+     * Test case: Sorted searches answered by the database.
+     * Expected: The same deals in the same order as the in-memory search, for every sort.
+     */
+    @Test
+    void searchResponses_SortedLikeMemory() {
+        for (DealSort sort : DealSort.values()) {
+            List<String> expected = inMemoryOrder(sort);
+            assertFalse(expected.isEmpty());
+
+            assertEquals(expected, dealObjectIds(dealSearchService.searchResponses(QUERY_TIME, DealFilter.none(), sort)),
+                         "sort=" + sort.getParameterValue());
+        }
+    }
+
+    /**
+     * Test case: Paging through the database search two deals at a time.
+     * Expected: The pages joined together give the in-memory order, and the last page has no cursor.
+     */
+    @Test
+    void page_WalksTheSortedSearch() {
+        for (DealSort sort : DealSort.values()) {
+            List<String> paged = new ArrayList<>();
+            DealCursor after = null;
+            do {
+                DealTimeline.DealPage page = dealSearchService.page(QUERY_TIME, DealFilter.none(), sort, after, 2);
+                assertTrue(page.getDeals().size() <= 2);
+                page.getDeals().forEach(deal -> paged.add(deal.getDealObjectId()));
+                after = page.getNext();
+            } while (after != null);
+
+            assertEquals(inMemoryOrder(sort), paged, "sort=" + sort.getParameterValue());
+        }
+    }
+
+    /**
+     * Test case: A deal without a discount, searched by discount.
+     * Expected: It comes after every discounted deal, as in memory.
+     */
+    @Test
+    @Transactional
+    void searchResponses_DealsWithoutDiscountComeLast() {
+        Deal discounted = dealRepository.findActiveDealsAtTime(QUERY_TIME).get(0);
+        Deal noDiscount = new Deal();
+        noDiscount.setDealObjectId("no-discount-deal");
+        noDiscount.setRestaurant(discounted.getRestaurant());
+        noDiscount.setRestaurantNameDenormalized(discounted.getRestaurantNameDenormalized());
+        noDiscount.setDineIn(false);
+        noDiscount.setLightning(false);
+        noDiscount.setQtyLeft(1);
+        noDiscount.setStartTime(QUERY_TIME.minusHours(1));
+        noDiscount.setEndTime(QUERY_TIME.plusHours(1));
+        dealRepository.saveAndFlush(noDiscount);
+
+        List<String> byDiscount = dealObjectIds(
+                dealSearchService.searchResponses(QUERY_TIME, DealFilter.none(), DealSort.DISCOUNT));
+
+        assertEquals("no-discount-deal", byDiscount.get(byDiscount.size() - 1));
+    }
+}
@@ -0,0 +1,295 @@
+package com.eatclub.deals.service;
+
+import com.eatclub.deals.dto.DealFilter;
+import com.eatclub.deals.dto.DealSort;
+import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.entity.Restaurant;
+import com.eatclub.deals.repository.RestaurantCuisine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DealTimelineTest {
+
+    private Restaurant restaurant;
+
+    @BeforeEach
+    void setUp() {
+        restaurant = new Restaurant();
+        restaurant.setId(99L);
+        restaurant.setRestaurantObjectId("dummy-restaurant-id");
+        restaurant.setRestaurantName("Dummy Restaurant");
+        restaurant.setOpenTime(LocalTime.of(8, 0));
+        restaurant.setCloseTime(LocalTime.of(22, 0));
+    }
+
+    private Deal createDeal(Long id, LocalTime startTime, LocalTime endTime) {
+        Deal deal = new Deal();
+        deal.setId(id);
+        deal.setDealObjectId("deal-obj-" + id);
+        deal.setRestaurant(restaurant);
+        deal.setStartTime(startTime);
+        deal.setEndTime(endTime);
+        deal.setQtyLeft(1);
+        deal.setIsDeleted(false);
+        deal.setRestaurantNameDenormalized("Dummy Restaurant");
+        deal.setDiscount(10.0);
+        deal.setDineIn(true);
+        deal.setLightning(false);
+        return deal;
+    }
+
+    /**
+     * Test case: No deals indexed.
+     * Expected: A single segment covering the whole day with no active deals.
+     */
+    @Test
+    void of_NoDeals() {
+        DealTimeline timeline = DealTimeline.of(Collections.emptyList());
+
+        assertEquals(1, timeline.getSegmentCount());
+        assertTrue(timeline.activeAt(LocalTime.NOON).isEmpty());
+    }
+
+    /**
+     * Test case: Start and end minutes are both inclusive, like the repository query.
+     */
+    @Test
+    void activeAt_InclusiveBoundaries() {
+        Deal deal = createDeal(1L, LocalTime.of(12, 0), LocalTime.of(14, 0));
+        DealTimeline timeline = DealTimeline.of(Collections.singletonList(deal));
+
+        assertTrue(timeline.activeAt(LocalTime.of(11, 59)).isEmpty());
+        assertEquals(List.of(deal), timeline.activeAt(LocalTime.of(12, 0)));
+        assertEquals(List.of(deal), timeline.activeAt(LocalTime.of(14, 0)));
+        assertTrue(timeline.activeAt(LocalTime.of(14, 1)).isEmpty());
+    }
+
+    /**
+     * Test case: A deal from 22:00 to 02:00 wraps past midnight.
+     * Expected: Active late in the evening and early in the morning, not at midday.
+     */
+    @Test
+    void activeAt_DealSpanningMidnight() {
+        Deal deal = createDeal(1L, LocalTime.of(22, 0), LocalTime.of(2, 0));
+        DealTimeline timeline = DealTimeline.of(Collections.singletonList(deal));
+
+        assertEquals(List.of(deal), timeline.activeAt(LocalTime.of(23, 30)));
+        assertEquals(List.of(deal), timeline.activeAt(LocalTime.MIDNIGHT));
+        assertEquals(List.of(deal), timeline.activeAt(LocalTime.of(2, 0)));
+        assertTrue(timeline.activeAt(LocalTime.NOON).isEmpty());
+    }
+
+    /**
+     * Test case: Overlapping deals keep the input order within a segment.
+     */
+    @Test
+    void activeAt_OverlappingDealsKeepInputOrder() {
+        Deal first = createDeal(1L, LocalTime.of(10, 0), LocalTime.of(13, 0));
+        Deal second = createDeal(2L, LocalTime.of(12, 0), LocalTime.of(15, 0));
+        DealTimeline timeline = DealTimeline.of(Arrays.asList(first, second));
+
+        assertEquals(List.of(first), timeline.activeAt(LocalTime.of(11, 0)));
+        assertEquals(List.of(first, second), timeline.activeAt(LocalTime.of(12, 30)));
+        assertEquals(List.of(second), timeline.activeAt(LocalTime.of(14, 0)));
+        assertEquals(timeline.segmentAt(LocalTime.of(12, 0)), timeline.segmentAt(LocalTime.of(13, 0)));
+    }
+
+    /**
+     * Test case: Sold out and soft-deleted deals are never returned.
+     */
+    @Test
+    void activeAt_SkipsSoldOutAndDeletedDeals() {
+        Deal soldOut = createDeal(1L, LocalTime.of(10, 0), LocalTime.of(13, 0));
+        soldOut.setQtyLeft(0);
+        Deal deleted = createDeal(2L, LocalTime.of(10, 0), LocalTime.of(13, 0));
+        deleted.setIsDeleted(true);
+        DealTimeline timeline = DealTimeline.of(Arrays.asList(soldOut, deleted));
+
+        assertEquals(0, timeline.getDealCount());
+        assertTrue(timeline.activeAt(LocalTime.of(11, 0)).isEmpty());
+    }
+
+    /**
+     * Test case: Paging through the active deals three at a time.
+     * Expected: Highest discount first, ties broken by id, every deal exactly once.
+     */
+    @Test
+    void pageAt_WalksDealsByDiscountThenId() {
+        Deal d1 = createDeal(1L, LocalTime.of(10, 0), LocalTime.of(13, 0));
+        Deal d2 = createDeal(2L, LocalTime.of(10, 0), LocalTime.of(13, 0));
+        d2.setDiscount(30.0);
+        Deal d3 = createDeal(3L, LocalTime.of(10, 0), LocalTime.of(13, 0));
+        d3.setDiscount(50.0);
+        Deal d4 = createDeal(4L, LocalTime.of(10, 0), LocalTime.of(13, 0));
+        d4.setDiscount(30.0);
+        Deal d5 = createDeal(5L, LocalTime.of(10, 0), LocalTime.of(13, 0));
+        Deal inactive = createDeal(6L, LocalTime.of(18, 0), LocalTime.of(20, 0));
+        DealTimeline timeline = DealTimeline.of(Arrays.asList(d1, d2, d3, d4, d5, inactive));
+
+        DealTimeline.DealPage first = timeline.pageAt(LocalTime.of(11, 0), DealFilter.none(), DealSort.DISCOUNT, null, 3);
+        assertEquals(List.of(d3, d2, d4), first.getDeals());
+        assertNotNull(first.getNext());
+
+        DealTimeline.DealPage second = timeline.pageAt(LocalTime.of(11, 0), DealFilter.none(), DealSort.DISCOUNT,
+                                                         DealCursor.decode(first.getNext().encode(), DealSort.DISCOUNT), 3);
+        assertEquals(List.of(d1, d5), second.getDeals());
+        assertNull(second.getNext());
+
+        assertEquals(List.of(d1, d2, d3, d4, d5), timeline.activeAt(LocalTime.of(11, 0)));
+    }
+
+    /**
+     * Test case: A cursor taken from an older timeline, after the deal it points at was removed.
+     * Expected: The next page starts right after the removed deal's position.
+     */
+    @Test
+    void pageAt_CursorSurvivesCatalogueChanges() {
+        Deal d1 = createDeal(1L, LocalTime.of(10, 0), LocalTime.of(13, 0));
+        d1.setDiscount(50.0);
+        Deal d2 = createDeal(2L, LocalTime.of(10, 0), LocalTime.of(13, 0));
+        d2.setDiscount(40.0);
+        Deal d3 = createDeal(3L, LocalTime.of(10, 0), LocalTime.of(13, 0));
+        d3.setDiscount(30.0);
+
+        DealCursor cursor = DealTimeline.of(Arrays.asList(d1, d2, d3))
+                                        .pageAt(LocalTime.NOON, DealFilter.none(), DealSort.DISCOUNT, null, 2)
+                                        .getNext();
+        DealTimeline.DealPage page = DealTimeline.of(Arrays.asList(d1, d3))
+                                                 .pageAt(LocalTime.NOON, DealFilter.none(), DealSort.DISCOUNT, cursor, 2);
+
+        assertEquals(List.of(d3), page.getDeals());
+        assertNull(page.getNext());
+    }
+
+    @Test
+    void pageAt_PastTheLastDeal() {
+        Deal deal = createDeal(1L, LocalTime.of(10, 0), LocalTime.of(13, 0));
+        DealTimeline timeline = DealTimeline.of(Collections.singletonList(deal));
+
+        DealTimeline.DealPage page = timeline.pageAt(LocalTime.NOON, DealFilter.none(), DealSort.DISCOUNT,
+                                                       DealCursor.after(DealSort.DISCOUNT, deal), 5);
+
+        assertTrue(page.getDeals().isEmpty());
+        assertNull(page.getNext());
+    }
+
+    /**
+     * Test case: Filtering by dine-in, minimum discount, suburb and cuisine.
+     * Expected: Only deals meeting every criterion, in activeAt order without a sort.
+     */
+    @Test
+    void searchAt_AppliesEveryFilter() {
+        Restaurant other = new Restaurant();
+        other.setId(100L);
+        other.setRestarantSuburb("Carlton");
+        other.setCuisines(List.of("Thai", "Noodles"));
+        restaurant.setRestarantSuburb("Richmond");
+        restaurant.setCuisines(List.of("Indian", "Curry"));
+
+        Deal match = createDeal(1L, LocalTime.of(10, 0), LocalTime.of(13, 0));
+        match.setDiscount(30.0);
+        Deal lowDiscount = createDeal(2L, LocalTime.of(10, 0), LocalTime.of(13, 0));
+        Deal takeaway = createDeal(3L, LocalTime.of(10, 0), LocalTime.of(13, 0));
+        takeaway.setDiscount(30.0);
+        takeaway.setDineIn(false);
+        Deal otherSuburb = createDeal(4L, LocalTime.of(10, 0), LocalTime.of(13, 0));
+        otherSuburb.setDiscount(30.0);
+        otherSuburb.setRestaurant(other);
+        Deal secondMatch = createDeal(5L, LocalTime.of(10, 0), LocalTime.of(13, 0));
+        secondMatch.setDiscount(50.0);
+        DealTimeline timeline = DealTimeline.of(Arrays.asList(match, lowDiscount, takeaway, otherSuburb, secondMatch));
+
+        DealFilter filter = new DealFilter(true, null, 20.0, "richmond", List.of("curry", "Pizza"));
+
+        assertEquals(List.of(match, secondMatch), timeline.searchAt(LocalTime.NOON, filter, null));
+        assertEquals(List.of(secondMatch, match), timeline.searchAt(LocalTime.NOON, filter, DealSort.DISCOUNT));
+        assertEquals(List.of(otherSuburb),
+                     timeline.searchAt(LocalTime.NOON, new DealFilter(null, null, null, null, List.of("Thai")), null));
+    }
+
+    /**
+     * Test case: Filtering by cuisine with the index built from (restaurant id, cuisine) rows.
+     * Expected: Names match ignoring case and spaces, and an unknown cuisine matches nothing.
+     */
+    @Test
+    void searchAt_CuisineIndexFromRows() {
+        Restaurant other = new Restaurant();
+        other.setId(100L);
+        Deal indian = createDeal(1L, LocalTime.of(10, 0), LocalTime.of(13, 0));
+        Deal thai = createDeal(2L, LocalTime.of(10, 0), LocalTime.of(13, 0));
+        thai.setRestaurant(other);
+        CuisineIndex cuisineIndex = CuisineIndex.of(List.of(new RestaurantCuisine(99L, "Indian"),
+                                                            new RestaurantCuisine(99L, "Curry"),
+                                                            new RestaurantCuisine(100L, "Thai")));
+        DealTimeline timeline = DealTimeline.of(Arrays.asList(indian, thai), cuisineIndex);
+
+        assertEquals(List.of(indian),
+                     timeline.searchAt(LocalTime.NOON, new DealFilter(null, null, null, null, List.of(" CURRY ")), null));
+        assertEquals(List.of(indian, thai),
+                     timeline.searchAt(LocalTime.NOON, new DealFilter(null, null, null, null, List.of("thai", "indian")), null));
+        assertTrue(timeline.searchAt(LocalTime.NOON, new DealFilter(null, null, null, null, List.of("Pizza")), null).isEmpty());
+        assertTrue(timeline.pageAt(LocalTime.NOON, new DealFilter(null, null, null, null, List.of("Pizza")),
+                                   DealSort.DISCOUNT, null, 5).getDeals().isEmpty());
+    }
+
+    /**
+     * Test case: Filtering more deals than fit in one bitmap word, with negated flags.
+     * Expected: The same deals as checking every deal one by one, in activeAt order or sorted.
+     */
+    @Test
+    void searchAt_FiltersAcrossBitmapWords() {
+        List<Deal> deals = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            Deal deal = createDeal(id, LocalTime.of(10, 0), LocalTime.of((id % 3 == 0) ? 11 : 13, 0));
+            deal.setDineIn(id % 2 == 0);
+            deal.setLightning(id % 5 == 0);
+            deal.setDiscount((double) (id % 7) * 10);
+            deals.add(deal);
+        }
+        DealTimeline timeline = DealTimeline.of(deals);
+        DealFilter filter = new DealFilter(false, false, 20.0, null, null);
+
+        List<Deal> expected = deals.stream()
+                                   .filter(deal -> deal.getId() % 3 != 0 && !deal.getDineIn() && !deal.getLightning()
+                                           && deal.getDiscount() >= 20.0)
+                                   .toList();
+        assertEquals(expected, timeline.searchAt(LocalTime.NOON, filter, null));
+        assertEquals(expected.stream().sorted(DealSort.DISCOUNT.order()).toList(),
+                     timeline.searchAt(LocalTime.NOON, filter, DealSort.DISCOUNT));
+    }
+
+    /**
+     * Test case: Paging fewest-left-first through a filtered segment.
+     * Expected: Non-matching deals are skipped and the cursor resumes after the last match.
+     */
+    @Test
+    void pageAt_FilteredByQtyLeft() {
+        Deal d1 = createDeal(1L, LocalTime.of(10, 0), LocalTime.of(13, 0));
+        d1.setQtyLeft(5);
+        Deal d2 = createDeal(2L, LocalTime.of(10, 0), LocalTime.of(13, 0));
+        d2.setQtyLeft(1);
+        d2.setLightning(true);
+        Deal d3 = createDeal(3L, LocalTime.of(10, 0), LocalTime.of(13, 0));
+        d3.setQtyLeft(3);
+        Deal d4 = createDeal(4L, LocalTime.of(10, 0), LocalTime.of(13, 0));
+        d4.setQtyLeft(2);
+        DealTimeline timeline = DealTimeline.of(Arrays.asList(d1, d2, d3, d4));
+        DealFilter regularOnly = new DealFilter(null, false, null, null, null);
+
+        DealTimeline.DealPage first = timeline.pageAt(LocalTime.NOON, regularOnly, DealSort.QTY_LEFT, null, 2);
+        assertEquals(List.of(d4, d3), first.getDeals());
+
+        DealTimeline.DealPage second = timeline.pageAt(LocalTime.NOON, regularOnly, DealSort.QTY_LEFT, first.getNext(), 2);
+        assertEquals(List.of(d1), second.getDeals());
+        assertNull(second.getNext());
+    }
+}
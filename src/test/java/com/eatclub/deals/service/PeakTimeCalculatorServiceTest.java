@@ -1,8 +1,15 @@
 package com.eatclub.deals.service;
 
 import com.eatclub.deals.entity.Deal;
+import com.eatclub.deals.entity.DealCatalogChangedEvent;
+import com.eatclub.deals.entity.DealCatalogChangedEvent.DealChange;
 import com.eatclub.deals.entity.Restaurant;
+import com.eatclub.deals.exception.InvalidInputException;
 import com.eatclub.deals.repository.DealRepository;
+import com.eatclub.deals.repository.DealTimeWindow;
+import com.eatclub.deals.repository.DealTimeWindowCount;
+import com.eatclub.deals.service.PeakTimeCalculatorService.PeakTimeSource;
+import com.eatclub.deals.service.PeakTimeCalculatorService.PeakTimeHistogram;
 import com.eatclub.deals.service.PeakTimeCalculatorService.PeakTimeWindow;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -11,14 +18,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
 import java.time.Instant;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -64,13 +75,19 @@ class PeakTimeCalculatorServiceTest {
         return deal;
     }
 
+    private List<DealTimeWindow> timeWindows(List<Deal> deals) {
+        return deals.stream()
+                    .map(deal -> new DealTimeWindow(deal.getId(), deal.getStartTime(), deal.getEndTime()))
+                    .collect(Collectors.toList());
+    }
+
     /**
      * Test case: No deals available.
      * Expected: PeakTimeWindow with null start and end times (no content).
      */
     @Test
     void calculatePeakTimeWindow_NoDeals() {
-        when(dealRepository.findAllValidDeals()).thenReturn(Collections.emptyList());
+        when(dealRepository.findValidDealTimeWindows()).thenReturn(Collections.emptyList());
 
         PeakTimeWindow result = peakTimeCalculatorService.calculatePeakTimeWindow();
 
@@ -91,7 +108,7 @@ class PeakTimeCalculatorServiceTest {
                 createDeal(1L, LocalTime.of(9, 0), LocalTime.of(9, 29)), 
                 createDeal(2L, LocalTime.of(10, 0), LocalTime.of(10, 29))
         );
-        when(dealRepository.findAllValidDeals()).thenReturn(deals);
+        when(dealRepository.findValidDealTimeWindows()).thenReturn(timeWindows(deals));
 
         PeakTimeWindow result = peakTimeCalculatorService.calculatePeakTimeWindow();
 
@@ -111,7 +128,7 @@ class PeakTimeCalculatorServiceTest {
                 createDeal(2L, LocalTime.of(9, 45), LocalTime.of(10, 45)),
                 createDeal(3L, LocalTime.of(10, 0), LocalTime.of(10, 30))
         );
-        when(dealRepository.findAllValidDeals()).thenReturn(deals);
+        when(dealRepository.findValidDealTimeWindows()).thenReturn(timeWindows(deals));
 
         PeakTimeWindow result = peakTimeCalculatorService.calculatePeakTimeWindow();
 
@@ -132,7 +149,7 @@ class PeakTimeCalculatorServiceTest {
                 createDeal(3L, LocalTime.of(12, 0), LocalTime.of(13, 15)),
                 createDeal(4L, LocalTime.of(12, 15), LocalTime.of(12, 45))
         );
-        when(dealRepository.findAllValidDeals()).thenReturn(deals);
+        when(dealRepository.findValidDealTimeWindows()).thenReturn(timeWindows(deals));
 
         PeakTimeWindow result = peakTimeCalculatorService.calculatePeakTimeWindow();
 
@@ -152,7 +169,7 @@ class PeakTimeCalculatorServiceTest {
                 createDeal(2L, LocalTime.of(23, 30), LocalTime.of(0, 30)),
                 createDeal(3L, LocalTime.of(0, 0), LocalTime.of(0, 45))
         );
-        when(dealRepository.findAllValidDeals()).thenReturn(deals);
+        when(dealRepository.findValidDealTimeWindows()).thenReturn(timeWindows(deals));
 
         PeakTimeWindow result = peakTimeCalculatorService.calculatePeakTimeWindow();
 
@@ -170,7 +187,7 @@ class PeakTimeCalculatorServiceTest {
         List<Deal> deals = Arrays.asList(
                 createDeal(1L, LocalTime.of(23, 0), LocalTime.MIDNIGHT)
         );
-        when(dealRepository.findAllValidDeals()).thenReturn(deals);
+        when(dealRepository.findValidDealTimeWindows()).thenReturn(timeWindows(deals));
 
         PeakTimeWindow result = peakTimeCalculatorService.calculatePeakTimeWindow();
 
@@ -196,7 +213,7 @@ class PeakTimeCalculatorServiceTest {
                 createDeal(5L, LocalTime.of(14, 0), LocalTime.of(14, 45)),
                 createDeal(6L, LocalTime.of(14, 15), LocalTime.of(15, 0))
         );
-        when(dealRepository.findAllValidDeals()).thenReturn(deals);
+        when(dealRepository.findValidDealTimeWindows()).thenReturn(timeWindows(deals));
 
         PeakTimeWindow result = peakTimeCalculatorService.calculatePeakTimeWindow();
 
@@ -215,7 +232,7 @@ class PeakTimeCalculatorServiceTest {
         List<Deal> deals = Arrays.asList(
                 createDeal(1L, LocalTime.MIDNIGHT, LocalTime.MIDNIGHT)
         );
-        when(dealRepository.findAllValidDeals()).thenReturn(deals);
+        when(dealRepository.findValidDealTimeWindows()).thenReturn(timeWindows(deals));
 
         PeakTimeWindow result = peakTimeCalculatorService.calculatePeakTimeWindow();
 
@@ -234,7 +251,7 @@ class PeakTimeCalculatorServiceTest {
         List<Deal> deals = Arrays.asList(
                 createDeal(1L, LocalTime.of(14, 10), LocalTime.of(14, 20))
         );
-        when(dealRepository.findAllValidDeals()).thenReturn(deals);
+        when(dealRepository.findValidDealTimeWindows()).thenReturn(timeWindows(deals));
 
         PeakTimeWindow result = peakTimeCalculatorService.calculatePeakTimeWindow();
 
@@ -251,7 +268,7 @@ class PeakTimeCalculatorServiceTest {
         List<Deal> deals = Arrays.asList(
                 createDeal(1L, LocalTime.of(13, 45), LocalTime.of(14, 15))
         );
-        when(dealRepository.findAllValidDeals()).thenReturn(deals);
+        when(dealRepository.findValidDealTimeWindows()).thenReturn(timeWindows(deals));
 
         PeakTimeWindow result = peakTimeCalculatorService.calculatePeakTimeWindow();
 
@@ -259,4 +276,173 @@ class PeakTimeCalculatorServiceTest {
         assertEquals(LocalTime.of(13, 30), result.getPeakTimeStart(), "Peak start time should be 13:30");
         assertEquals(LocalTime.of(14, 30), result.getPeakTimeEnd(), "Peak end time should be 14:30");
     }
+
+    /**
+     * Test case: A deal created after the slot counts were seeded.
+     * Expected: The new deal is applied from the change event without querying the database again.
+     */
+    @Test
+    void calculatePeakTimeWindow_AppliesCreatedDealIncrementally() {
+        when(dealRepository.findValidDealTimeWindows()).thenReturn(timeWindows(Arrays.asList(
+                createDeal(1L, LocalTime.of(9, 0), LocalTime.of(11, 0)),
+                createDeal(2L, LocalTime.of(10, 0), LocalTime.of(12, 0))
+        )));
+        assertEquals(LocalTime.of(10, 0), peakTimeCalculatorService.calculatePeakTimeWindow().getPeakTimeStart());
+
+        peakTimeCalculatorService.onCatalogChanged(new DealCatalogChangedEvent(List.of(
+                new DealChange(3L, LocalTime.of(14, 0), LocalTime.of(15, 0), true),
+                new DealChange(4L, LocalTime.of(14, 0), LocalTime.of(15, 0), true),
+                new DealChange(5L, LocalTime.of(14, 0), LocalTime.of(14, 30), true)
+        ), false));
+
+        PeakTimeWindow result = peakTimeCalculatorService.calculatePeakTimeWindow();
+
+        assertEquals(LocalTime.of(14, 0), result.getPeakTimeStart(), "Peak start time should move to 14:00");
+        assertEquals(LocalTime.of(14, 30), result.getPeakTimeEnd(), "Peak end time should be 14:30");
+        verify(dealRepository, times(1)).findValidDealTimeWindows();
+    }
+
+    /**
+     * Test case: Deals rescheduled and soft-deleted after the slot counts were seeded.
+     * Expected: The old windows are removed before the new ones are applied.
+     */
+    @Test
+    void calculatePeakTimeWindow_AppliesUpdatedAndDeletedDealsIncrementally() {
+        when(dealRepository.findValidDealTimeWindows()).thenReturn(timeWindows(Arrays.asList(
+                createDeal(1L, LocalTime.of(9, 0), LocalTime.of(11, 0)),
+                createDeal(2L, LocalTime.of(10, 0), LocalTime.of(12, 0)),
+                createDeal(3L, LocalTime.of(18, 0), LocalTime.of(19, 0))
+        )));
+        assertEquals(LocalTime.of(10, 0), peakTimeCalculatorService.calculatePeakTimeWindow().getPeakTimeStart());
+
+        peakTimeCalculatorService.onCatalogChanged(new DealCatalogChangedEvent(List.of(
+                new DealChange(1L, LocalTime.of(9, 0), LocalTime.of(11, 0), false),
+                new DealChange(2L, LocalTime.of(18, 0), LocalTime.of(18, 30), true)
+        ), false));
+
+        PeakTimeWindow result = peakTimeCalculatorService.calculatePeakTimeWindow();
+
+        assertEquals(LocalTime.of(18, 0), result.getPeakTimeStart(), "Peak start time should be 18:00");
+        assertEquals(LocalTime.of(18, 30), result.getPeakTimeEnd(), "Peak end time should be 18:30");
+    }
+
+    /**
+     * Test case: Peak window at one-minute granularity.
+     * Expected: The exact overlap of the deals, with deal end times exclusive.
+     */
+    @Test
+    void calculatePeakTimeWindow_OneMinuteGranularity() {
+        List<Deal> deals = Arrays.asList(
+                createDeal(1L, LocalTime.of(10, 0), LocalTime.of(10, 15)),
+                createDeal(2L, LocalTime.of(10, 5), LocalTime.of(10, 20))
+        );
+        when(dealRepository.findValidDealTimeWindows()).thenReturn(timeWindows(deals));
+
+        PeakTimeWindow result = peakTimeCalculatorService.calculatePeakTimeWindow(1);
+
+        assertEquals(LocalTime.of(10, 5), result.getPeakTimeStart(), "Peak start time should be 10:05");
+        assertEquals(LocalTime.of(10, 15), result.getPeakTimeEnd(), "Peak end time should be 10:15");
+    }
+
+    /**
+     * Test case: Deals spanning midnight at hourly granularity.
+     * Expected: Both sides of midnight are counted, and the earliest of the
+     * equally long peaks (00:00-01:00 and 23:00-00:00) is returned.
+     */
+    @Test
+    void calculatePeakTimeWindow_HourlyGranularitySpanningMidnight() {
+        List<Deal> deals = Arrays.asList(
+                createDeal(1L, LocalTime.of(22, 30), LocalTime.of(1, 30)),
+                createDeal(2L, LocalTime.of(23, 15), LocalTime.of(0, 45))
+        );
+        when(dealRepository.findValidDealTimeWindows()).thenReturn(timeWindows(deals));
+
+        PeakTimeWindow result = peakTimeCalculatorService.calculatePeakTimeWindow(60);
+
+        assertEquals(LocalTime.MIDNIGHT, result.getPeakTimeStart(), "Peak start time should be 00:00");
+        assertEquals(LocalTime.of(1, 0), result.getPeakTimeEnd(), "Peak end time should be 01:00");
+    }
+
+    /**
+     * Test case: A granularity that does not divide the day evenly.
+     * Expected: InvalidInputException.
+     */
+    @Test
+    void calculatePeakTimeWindow_InvalidGranularity() {
+        assertThrows(InvalidInputException.class, () -> peakTimeCalculatorService.calculatePeakTimeWindow(7));
+        assertThrows(InvalidInputException.class, () -> peakTimeCalculatorService.calculatePeakTimeWindow(0));
+    }
+
+    /**
+     * Test case: Histogram with the three busiest windows.
+     * Expected: One count per slot and the windows ranked by deal count, then length, then start time.
+     */
+    @Test
+    void calculateHistogram_TopWindows() {
+        List<Deal> deals = Arrays.asList(
+                createDeal(1L, LocalTime.of(9, 0), LocalTime.of(11, 0)),
+                createDeal(2L, LocalTime.of(10, 0), LocalTime.of(11, 0)),
+                createDeal(3L, LocalTime.of(18, 0), LocalTime.of(20, 0)),
+                createDeal(4L, LocalTime.of(18, 0), LocalTime.of(20, 0))
+        );
+        when(dealRepository.findValidDealTimeWindows()).thenReturn(timeWindows(deals));
+
+        PeakTimeHistogram histogram = peakTimeCalculatorService.calculateHistogram(60, 3);
+
+        assertEquals(60, histogram.getGranularityMinutes());
+        assertEquals(24, histogram.getSlotDealCounts().length);
+        assertEquals(1, histogram.getSlotDealCounts()[9]);
+        assertEquals(2, histogram.getSlotDealCounts()[10]);
+        assertEquals(2, histogram.getSlotDealCounts()[19]);
+        assertEquals(0, histogram.getSlotDealCounts()[12]);
+
+        List<PeakTimeWindow> windows = histogram.getBusiestWindows();
+        assertEquals(3, windows.size());
+        assertEquals(LocalTime.of(18, 0), windows.get(0).getPeakTimeStart(), "Longest window at the max count comes first");
+        assertEquals(LocalTime.of(20, 0), windows.get(0).getPeakTimeEnd());
+        assertEquals(2, windows.get(0).getActiveDeals());
+        assertEquals(LocalTime.of(10, 0), windows.get(1).getPeakTimeStart());
+        assertEquals(LocalTime.of(11, 0), windows.get(1).getPeakTimeEnd());
+        assertEquals(LocalTime.of(9, 0), windows.get(2).getPeakTimeStart());
+        assertEquals(1, windows.get(2).getActiveDeals());
+
+        PeakTimeWindow peak = peakTimeCalculatorService.calculatePeakTimeWindow(60);
+        assertEquals(windows.get(0).getPeakTimeStart(), peak.getPeakTimeStart(), "The single peak is the busiest window");
+    }
+
+    /**
+     * Test case: A negative number of windows.
+     * Expected: InvalidInputException.
+     */
+    @Test
+    void calculateHistogram_NegativeTop() {
+        assertThrows(InvalidInputException.class, () -> peakTimeCalculatorService.calculateHistogram(30, -1));
+    }
+
+    /**
+     * Test case: The database is the source of the slot counts.
+     * Expected: Deal windows are read as aggregated counts, and any deal write
+     * triggers a new aggregation instead of an in-memory patch.
+     */
+    @Test
+    void calculatePeakTimeWindow_DatabaseSource() {
+        ReflectionTestUtils.setField(peakTimeCalculatorService, "source", PeakTimeSource.DATABASE);
+        when(dealRepository.countValidDealsByTimeWindow()).thenReturn(Arrays.asList(
+                new DealTimeWindowCount(LocalTime.of(9, 0), LocalTime.of(11, 0), 3L),
+                new DealTimeWindowCount(LocalTime.of(10, 0), LocalTime.of(10, 30), 2L)
+        ));
+
+        PeakTimeWindow result = peakTimeCalculatorService.calculatePeakTimeWindow();
+
+        assertEquals(LocalTime.of(10, 0), result.getPeakTimeStart(), "Peak start time should be 10:00");
+        assertEquals(LocalTime.of(10, 30), result.getPeakTimeEnd(), "Peak end time should be 10:30");
+        assertEquals(5, result.getActiveDeals());
+
+        peakTimeCalculatorService.onCatalogChanged(new DealCatalogChangedEvent(List.of(
+                new DealChange(6L, LocalTime.of(14, 0), LocalTime.of(15, 0), true)
+        ), false));
+        peakTimeCalculatorService.calculatePeakTimeWindow();
+
+        verify(dealRepository, times(2)).countValidDealsByTimeWindow();
+    }
 }
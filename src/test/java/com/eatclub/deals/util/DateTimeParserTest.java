@@ -0,0 +1,68 @@
+package com.eatclub.deals.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DateTimeParserTest {
+
+    private static final DateTimeFormatter TIME_FORMATTER_12HR = DateTimeFormatter.ofPattern("h:mma", Locale.ENGLISH);
+    private static final DateTimeFormatter TIME_FORMATTER_24HR = DateTimeFormatter.ofPattern("HH:mm", Locale.ENGLISH);
+
+    private final DateTimeParser dateTimeParser = new DateTimeParser();
+
+    /**
+     * Test case: Every minute of the day, formatted in each accepted format.
+     * Expected: Parsed to the same LocalTime as the java.time patterns.
+     */
+    @Test
+    void parseTimeRobustly_EveryMinuteInEveryFormat() {
+        for (int minute = 0; minute < 24 * 60; minute++) {
+            LocalTime time = LocalTime.of(minute / 60, minute % 60);
+            String twelveHour = time.format(TIME_FORMATTER_12HR);
+
+            assertEquals(time, dateTimeParser.parseTimeRobustly(twelveHour));
+            assertEquals(time, dateTimeParser.parseTimeRobustly(twelveHour.toLowerCase(Locale.ENGLISH)));
+            assertEquals(time, dateTimeParser.parseTimeRobustly(time.format(TIME_FORMATTER_24HR)));
+        }
+    }
+
+    @Test
+    void parseTimeRobustly_ReturnsSharedInstances() {
+        assertSame(dateTimeParser.parseTimeRobustly("3:00pm"), dateTimeParser.parseTimeRobustly("15:00"));
+    }
+
+    /**
+     * Test case: Inputs the java.time patterns also accept, though they are not formatted that way.
+     */
+    @Test
+    void parseTimeRobustly_LenientForms() {
+        assertEquals(LocalTime.of(3, 0), dateTimeParser.parseTimeRobustly("03:00Am"));
+        assertEquals(LocalTime.of(0, 30), dateTimeParser.parseTimeRobustly("0:30am"));
+        assertEquals(LocalTime.of(12, 30), dateTimeParser.parseTimeRobustly("0:30pm"));
+        assertEquals(LocalTime.MIDNIGHT, dateTimeParser.parseTimeRobustly("24:00"));
+    }
+
+    /**
+     * Test case: Inputs neither pattern accepts.
+     * Expected: DateTimeParseException with the same message as before.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"", "not-a-time", "3:00", "3:0pm", "13:00pm", "24:01", "9:60am", "15:00pm", "3:00pn",
+                            " 3:00pm", "3:00pm ", "15:001", "1500", "-1:00", "3:00p"})
+    void parseTimeRobustly_InvalidInput(String timeString) {
+        DateTimeParseException exception = assertThrows(DateTimeParseException.class,
+                () -> dateTimeParser.parseTimeRobustly(timeString));
+
+        assertEquals("Could not parse time: '" + timeString
+                     + "'. Expected formats like '3:00pm', '10:30am' or '15:00', '22:00'.", exception.getMessage());
+        assertEquals(timeString, exception.getParsedString());
+    }
+}
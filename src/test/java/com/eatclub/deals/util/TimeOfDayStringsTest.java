@@ -0,0 +1,51 @@
+package com.eatclub.deals.util;
+
+import com.eatclub.deals.config.DateTimeConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOfDayStringsTest {
+
+    private final TimeOfDayStrings times = TimeOfDayStrings.STANDARD;
+
+    /**
+     * Test case: Every minute of the day in both formats.
+     * Expected: The same text as the DateTimeConfig formatters, with AM/PM in upper case.
+     */
+    @Test
+    void everyMinuteMatchesTheFormatters() {
+        for (int minute = 0; minute < 24 * 60; minute++) {
+            LocalTime time = LocalTime.of(minute / 60, minute % 60);
+
+            assertEquals(time.format(DateTimeConfig.HHMM_FORMATTER), times.hhmm(time));
+            assertEquals(time.format(DateTimeConfig.HHMM_FORMATTER), times.hhmm(minute));
+            assertEquals(time.format(DateTimeConfig.HHMMA_FORMATTER).toUpperCase(Locale.ENGLISH), times.hhmma(time));
+        }
+    }
+
+    /**
+     * Test case: The same time rendered twice.
+     * Expected: The same String instance, so nothing is allocated per call.
+     */
+    @Test
+    void returnsSharedInstances() {
+        assertSame(times.hhmma(LocalTime.of(15, 0)), times.hhmma(LocalTime.of(15, 0)));
+        assertSame(times.hhmm(LocalTime.of(18, 30)), times.hhmm(18 * 60 + 30));
+    }
+
+    /**
+     * Test case: The end of the day, a time with seconds, and null.
+     * Expected: Midnight, the formatter's output, and null.
+     */
+    @Test
+    void edgeCases() {
+        assertEquals("00:00", times.hhmm(24 * 60));
+        assertEquals("3:00PM", times.hhmma(LocalTime.of(15, 0, 30)));
+        assertNull(times.hhmm(null));
+        assertNull(times.hhmma(null));
+    }
+}